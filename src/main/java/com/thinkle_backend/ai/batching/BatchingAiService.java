@@ -0,0 +1,165 @@
+package com.thinkle_backend.ai.batching;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiRequestShedException;
+import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
+import com.thinkle_backend.ai.prompts.PromptBuilder;
+import com.thinkle_backend.ai.scheduling.AiLane;
+import com.thinkle_backend.ai.scheduling.UserQuota;
+import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Collects concurrent oracle-reply requests over a short window (or until the batch is full),
+ * sends them to the delegate as one multi-part prompt and hands each caller its own answer.
+ * Any other feature goes straight through to the delegate. A batch is sent from the batcher's own
+ * subscription, without any caller's Reactor Context, so each reply spends its user's quota before
+ * it is queued for a batch.
+ */
+public class BatchingAiService implements AiService, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingAiService.class);
+    private static final TypeReference<List<String>> ANSWER_LIST = new TypeReference<>() {};
+    private static final Duration EMIT_RETRY_DURATION = Duration.ofMillis(100);
+
+    private final AiService delegate;
+    private final PromptBuilder promptBuilder;
+    private final ObjectMapper objectMapper;
+    private final UserQuota userQuota;
+    private final Counter quotaSheds;
+    private final Sinks.Many<PendingRequest> pendingRequests = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable batcher;
+    private final DistributionSummary batchSizes;
+    private final Counter batchFallbacks;
+
+    public BatchingAiService(AiService delegate,
+                             PromptBuilder promptBuilder,
+                             ObjectMapper objectMapper,
+                             UserQuota userQuota,
+                             MeterRegistry meterRegistry,
+                             Duration window,
+                             int maxBatchSize,
+                             int maxConcurrentBatches) {
+        this.delegate = delegate;
+        this.promptBuilder = promptBuilder;
+        this.objectMapper = objectMapper;
+        this.userQuota = userQuota;
+        this.quotaSheds = meterRegistry.counter("thinkle.ai.scheduler.shed", "lane", AiLane.REPLY.name(), "reason", "user-quota");
+        this.batchSizes = DistributionSummary.builder("thinkle.ai.batch.size")
+                .description("Number of requests sent in one batched prompt")
+                .register(meterRegistry);
+        this.batchFallbacks = meterRegistry.counter("thinkle.ai.batch.fallbacks");
+
+        this.batcher = pendingRequests.asFlux()
+                .bufferTimeout(maxBatchSize, window)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .subscribe();
+    }
+
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
+
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        if (feature != AiFeature.REPLY) {
+            return delegate.getAnswerAsync(feature, question);
+        }
+
+        return Mono.deferContextual(context -> {
+            if (userQuota != null && !userQuota.tryTake(context)) {
+                quotaSheds.increment();
+                return Mono.error(new AiRequestShedException("AI call shed from the " + AiLane.REPLY + " lane: user-quota"));
+            }
+
+            Sinks.One<String> answer = Sinks.one();
+            pendingRequests.emitNext(new PendingRequest(question, answer),
+                    Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY_DURATION));
+            return answer.asMono();
+        });
+    }
+
+    // A streamed reply has to reach the player chunk by chunk, so it never waits for a batch
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        return delegate.streamAnswer(feature, question);
+    }
+
+    @Override
+    public void close() {
+        batcher.dispose();
+    }
+
+    private Mono<Void> dispatch(List<PendingRequest> batch) {
+        batchSizes.record(batch.size());
+
+        if (batch.size() == 1) {
+            return answerIndividually(batch);
+        }
+
+        List<String> questions = batch.stream().map(PendingRequest::question).toList();
+
+        return Mono.fromSupplier(() -> promptBuilder.generateBatchPrompt(questions))
+                .flatMap(prompt -> delegate.getAnswerAsync(AiFeature.REPLY_BATCH, prompt))
+                .map(this::splitAnswers)
+                .doOnNext(answers -> {
+                    if (answers.size() != batch.size()) {
+                        throw new AiResponseNotGeneratedException(
+                                "Batched answer had " + answers.size() + " parts for " + batch.size() + " requests");
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).answer().tryEmitValue(answers.get(i).trim());
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    logger.warn("Batched AI request of size {} failed, answering individually: {}", batch.size(), e.getMessage());
+                    batchFallbacks.increment();
+                    return answerIndividually(batch);
+                });
+    }
+
+    private Mono<Void> answerIndividually(List<PendingRequest> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(request -> delegate.getAnswerAsync(AiFeature.REPLY, request.question())
+                        .doOnNext(answer -> request.answer().tryEmitValue(answer))
+                        .doOnError(e -> request.answer().tryEmitError(e))
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private List<String> splitAnswers(String batchedAnswer) {
+        String json = batchedAnswer.trim();
+
+        // Models sometimes wrap JSON in a markdown code fence even when asked not to
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            if (json.endsWith("```")) {
+                json = json.substring(0, json.length() - 3);
+            }
+        }
+
+        try {
+            return objectMapper.readValue(json, ANSWER_LIST);
+        } catch (Exception e) {
+            throw new AiResponseNotGeneratedException("Batched answer was not a JSON array of strings");
+        }
+    }
+
+    private record PendingRequest(String question, Sinks.One<String> answer) {
+    }
+}
@@ -0,0 +1,291 @@
+package com.thinkle_backend.ai.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.batching.BatchingAiService;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.prompts.PromptBuilder;
+import com.thinkle_backend.ai.resilience.CircuitBreaker;
+import com.thinkle_backend.ai.resilience.ResilientAiService;
+import com.thinkle_backend.ai.resilience.RetryBudget;
+import com.thinkle_backend.ai.routing.AiEndpointProperties;
+import com.thinkle_backend.ai.routing.AiProvider;
+import com.thinkle_backend.ai.routing.ProviderHealth;
+import com.thinkle_backend.ai.routing.RoutingAiService;
+import com.thinkle_backend.ai.scheduling.AiLane;
+import com.thinkle_backend.ai.scheduling.ScheduledAiService;
+import com.thinkle_backend.ai.scheduling.UserQuota;
+import com.thinkle_backend.ai.services.AiService;
+import com.thinkle_backend.ai.services.implementations.GeminiAiServiceImpl;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+// Composes the AiService the features talk to, optional stages are wrapped around the Gemini client
+@Configuration
+public class AiServiceConfig {
+
+    @Value("${thinkle.ai.batching.enabled:false}")
+    private Boolean BATCHING_ENABLED;
+
+    @Value("${thinkle.ai.batching.window-ms:20}")
+    private Long BATCHING_WINDOW_MS;
+
+    @Value("${thinkle.ai.batching.max-batch-size:8}")
+    private Integer BATCHING_MAX_BATCH_SIZE;
+
+    @Value("${thinkle.ai.batching.max-concurrent-batches:4}")
+    private Integer BATCHING_MAX_CONCURRENT_BATCHES;
+
+    @Value("${thinkle.ai.resilience.circuit-breaker.failure-rate-threshold:50}")
+    private Double CIRCUIT_FAILURE_RATE_THRESHOLD;
+
+    @Value("${thinkle.ai.resilience.circuit-breaker.sliding-window-size:20}")
+    private Integer CIRCUIT_SLIDING_WINDOW_SIZE;
+
+    @Value("${thinkle.ai.resilience.circuit-breaker.minimum-calls:10}")
+    private Integer CIRCUIT_MINIMUM_CALLS;
+
+    @Value("${thinkle.ai.resilience.circuit-breaker.open-duration-ms:30000}")
+    private Long CIRCUIT_OPEN_DURATION_MS;
+
+    @Value("${thinkle.ai.resilience.circuit-breaker.half-open-probes:3}")
+    private Integer CIRCUIT_HALF_OPEN_PROBES;
+
+    @Value("${thinkle.ai.resilience.retry.max-retries:2}")
+    private Integer RETRY_MAX_RETRIES;
+
+    @Value("${thinkle.ai.resilience.retry.base-backoff-ms:100}")
+    private Long RETRY_BASE_BACKOFF_MS;
+
+    @Value("${thinkle.ai.resilience.retry.max-backoff-ms:2000}")
+    private Long RETRY_MAX_BACKOFF_MS;
+
+    @Value("${thinkle.ai.resilience.retry.budget-ratio:0.1}")
+    private Double RETRY_BUDGET_RATIO;
+
+    @Value("${thinkle.ai.resilience.retry.budget-min-per-second:1}")
+    private Double RETRY_BUDGET_MIN_PER_SECOND;
+
+    @Value("${thinkle.ai.resilience.hedging.enabled:false}")
+    private Boolean HEDGING_ENABLED;
+
+    @Value("${thinkle.ai.resilience.hedging.percentile:0.95}")
+    private Double HEDGING_PERCENTILE;
+
+    @Value("${thinkle.ai.resilience.hedging.min-samples:50}")
+    private Integer HEDGING_MIN_SAMPLES;
+
+    @Value("${thinkle.ai.resilience.fallback.enabled:true}")
+    private Boolean FALLBACK_ENABLED;
+
+    @Value("${thinkle.ai.routing.enabled:false}")
+    private Boolean ROUTING_ENABLED;
+
+    @Value("${thinkle.ai.routing.local-provider-enabled:true}")
+    private Boolean ROUTING_LOCAL_PROVIDER_ENABLED;
+
+    @Value("${thinkle.ai.routing.local-provider-replies:false}")
+    private Boolean ROUTING_LOCAL_PROVIDER_REPLIES;
+
+    @Value("${thinkle.ai.routing.probe-interval-ms:30000}")
+    private Long ROUTING_PROBE_INTERVAL_MS;
+
+    @Value("${thinkle.ai.routing.budget-ms.word:5000}")
+    private Long ROUTING_BUDGET_WORD_MS;
+
+    @Value("${thinkle.ai.routing.budget-ms.hint:3000}")
+    private Long ROUTING_BUDGET_HINT_MS;
+
+    @Value("${thinkle.ai.routing.budget-ms.hint-batch:6000}")
+    private Long ROUTING_BUDGET_HINT_BATCH_MS;
+
+    @Value("${thinkle.ai.routing.budget-ms.reply:1500}")
+    private Long ROUTING_BUDGET_REPLY_MS;
+
+    @Value("${thinkle.ai.routing.budget-ms.reply-batch:3000}")
+    private Long ROUTING_BUDGET_REPLY_BATCH_MS;
+
+    @Value("${thinkle.ai.routing.ewma-alpha:0.2}")
+    private Double ROUTING_EWMA_ALPHA;
+
+    @Value("${thinkle.ai.routing.min-samples:10}")
+    private Integer ROUTING_MIN_SAMPLES;
+
+    @Value("${thinkle.ai.routing.retire.max-error-rate:0.5}")
+    private Double ROUTING_RETIRE_MAX_ERROR_RATE;
+
+    @Value("${thinkle.ai.routing.retire.max-latency-ms:8000}")
+    private Double ROUTING_RETIRE_MAX_LATENCY_MS;
+
+    @Value("${thinkle.ai.routing.retire.cool-down-ms:30000}")
+    private Long ROUTING_RETIRE_COOL_DOWN_MS;
+
+    @Value("${thinkle.ai.scheduler.enabled:false}")
+    private Boolean SCHEDULER_ENABLED;
+
+    @Value("${thinkle.ai.scheduler.rate-per-second:10}")
+    private Double SCHEDULER_RATE_PER_SECOND;
+
+    @Value("${thinkle.ai.scheduler.burst:20}")
+    private Double SCHEDULER_BURST;
+
+    @Value("${thinkle.ai.scheduler.user-rate-per-minute:30}")
+    private Double SCHEDULER_USER_RATE_PER_MINUTE;
+
+    @Value("${thinkle.ai.scheduler.user-burst:10}")
+    private Double SCHEDULER_USER_BURST;
+
+    @Value("${thinkle.ai.scheduler.max-queued:500}")
+    private Integer SCHEDULER_MAX_QUEUED;
+
+    @Value("${thinkle.ai.scheduler.max-wait-ms.word:60000}")
+    private Long SCHEDULER_MAX_WAIT_WORD_MS;
+
+    @Value("${thinkle.ai.scheduler.max-wait-ms.hint:30000}")
+    private Long SCHEDULER_MAX_WAIT_HINT_MS;
+
+    @Value("${thinkle.ai.scheduler.max-wait-ms.reply:3000}")
+    private Long SCHEDULER_MAX_WAIT_REPLY_MS;
+
+    @Bean
+    @Primary
+    public AiService aiService(GeminiAiServiceImpl geminiAiService,
+                               LocalFallbackAiService localFallbackAiService,
+                               PromptBuilder promptBuilder,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               Environment environment) {
+        AiService aiService = geminiAiService;
+
+        if (ROUTING_ENABLED) {
+            aiService = buildRouter(geminiAiService, localFallbackAiService, meterRegistry, environment);
+        }
+
+        UserQuota userQuota = SCHEDULER_ENABLED
+                ? new UserQuota(SCHEDULER_USER_RATE_PER_MINUTE, SCHEDULER_USER_BURST)
+                : null;
+
+        // Below the resilience layer, so retries and hedges spend tokens too and shed calls get the local fallback.
+        // Below the batcher as well, so a batch of replies spends one global token for its one upstream call.
+        if (SCHEDULER_ENABLED) {
+            Map<AiLane, Duration> maxWait = new EnumMap<>(AiLane.class);
+            maxWait.put(AiLane.WORD, Duration.ofMillis(SCHEDULER_MAX_WAIT_WORD_MS));
+            maxWait.put(AiLane.HINT, Duration.ofMillis(SCHEDULER_MAX_WAIT_HINT_MS));
+            maxWait.put(AiLane.REPLY, Duration.ofMillis(SCHEDULER_MAX_WAIT_REPLY_MS));
+
+            aiService = new ScheduledAiService(
+                    aiService,
+                    meterRegistry,
+                    SCHEDULER_RATE_PER_SECOND,
+                    SCHEDULER_BURST,
+                    userQuota,
+                    SCHEDULER_MAX_QUEUED,
+                    maxWait
+            );
+        }
+
+        // Batches go out without any caller's context, so the batcher spends each reply's user quota itself
+        if (BATCHING_ENABLED) {
+            aiService = new BatchingAiService(
+                    aiService,
+                    promptBuilder,
+                    objectMapper,
+                    userQuota,
+                    meterRegistry,
+                    Duration.ofMillis(BATCHING_WINDOW_MS),
+                    BATCHING_MAX_BATCH_SIZE,
+                    BATCHING_MAX_CONCURRENT_BATCHES
+            );
+        }
+
+        aiService = new ResilientAiService(
+                aiService,
+                localFallbackAiService,
+                new CircuitBreaker(
+                        "gemini",
+                        CIRCUIT_FAILURE_RATE_THRESHOLD,
+                        CIRCUIT_SLIDING_WINDOW_SIZE,
+                        CIRCUIT_MINIMUM_CALLS,
+                        Duration.ofMillis(CIRCUIT_OPEN_DURATION_MS),
+                        CIRCUIT_HALF_OPEN_PROBES,
+                        meterRegistry
+                ),
+                new RetryBudget(RETRY_BUDGET_RATIO, RETRY_BUDGET_MIN_PER_SECOND, meterRegistry),
+                meterRegistry,
+                RETRY_MAX_RETRIES,
+                Duration.ofMillis(RETRY_BASE_BACKOFF_MS),
+                Duration.ofMillis(RETRY_MAX_BACKOFF_MS),
+                HEDGING_ENABLED,
+                HEDGING_PERCENTILE,
+                HEDGING_MIN_SAMPLES,
+                FALLBACK_ENABLED
+        );
+
+        return aiService;
+    }
+
+    // Providers in order of preference: the configured Gemini endpoint, the extra endpoints, then the local one
+    private RoutingAiService buildRouter(GeminiAiServiceImpl geminiAiService,
+                                         LocalFallbackAiService localFallbackAiService,
+                                         MeterRegistry meterRegistry,
+                                         Environment environment) {
+        List<AiProvider> providers = new ArrayList<>();
+        providers.add(new AiProvider("gemini", geminiAiService, EnumSet.allOf(AiFeature.class)));
+
+        Binder.get(environment)
+                .bind("thinkle.ai.routing.providers", Bindable.listOf(AiEndpointProperties.class))
+                .orElse(List.of())
+                .forEach(endpoint -> providers.add(new AiProvider(
+                        endpoint.name(),
+                        geminiAiService.forEndpoint(endpoint.url(), endpoint.streamUrl(), endpoint.key()),
+                        EnumSet.allOf(AiFeature.class))));
+
+        if (ROUTING_LOCAL_PROVIDER_ENABLED) {
+            EnumSet<AiFeature> localFeatures = EnumSet.noneOf(AiFeature.class);
+            for (AiFeature feature : AiFeature.values()) {
+                if (localFallbackAiService.supports(feature)) {
+                    localFeatures.add(feature);
+                }
+            }
+            // A canned reply always fits the budget, it only stands in for the oracle when an operator asks for it
+            if (!ROUTING_LOCAL_PROVIDER_REPLIES) {
+                localFeatures.removeAll(EnumSet.of(AiFeature.REPLY, AiFeature.REPLY_BATCH));
+            }
+            providers.add(new AiProvider("local", localFallbackAiService, localFeatures));
+        }
+
+        Map<AiFeature, Duration> latencyBudgets = new EnumMap<>(AiFeature.class);
+        latencyBudgets.put(AiFeature.WORD, Duration.ofMillis(ROUTING_BUDGET_WORD_MS));
+        latencyBudgets.put(AiFeature.HINT, Duration.ofMillis(ROUTING_BUDGET_HINT_MS));
+        latencyBudgets.put(AiFeature.HINT_BATCH, Duration.ofMillis(ROUTING_BUDGET_HINT_BATCH_MS));
+        latencyBudgets.put(AiFeature.REPLY, Duration.ofMillis(ROUTING_BUDGET_REPLY_MS));
+        latencyBudgets.put(AiFeature.REPLY_BATCH, Duration.ofMillis(ROUTING_BUDGET_REPLY_BATCH_MS));
+
+        return new RoutingAiService(
+                providers,
+                provider -> new ProviderHealth(
+                        ROUTING_EWMA_ALPHA,
+                        ROUTING_MIN_SAMPLES,
+                        ROUTING_RETIRE_MAX_ERROR_RATE,
+                        ROUTING_RETIRE_MAX_LATENCY_MS,
+                        Duration.ofMillis(ROUTING_RETIRE_COOL_DOWN_MS),
+                        Duration.ofMillis(ROUTING_PROBE_INTERVAL_MS)
+                ),
+                latencyBudgets,
+                meterRegistry
+        );
+    }
+}
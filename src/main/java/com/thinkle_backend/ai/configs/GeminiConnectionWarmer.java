@@ -0,0 +1,127 @@
+package com.thinkle_backend.ai.configs;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Pre-opens connections to the Gemini host so the first calls after a deploy do not pay for DNS,
+ * TCP and TLS handshakes, and keeps topping the idle pool back up as load grows.
+ */
+@Component
+public class GeminiConnectionWarmer implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiConnectionWarmer.class);
+    private static final String POOL_METRIC_PREFIX = "reactor.netty.connection.provider.";
+
+    @Value("${gemini.api.url}")
+    private String geminiApiUrl;
+
+    @Value("${thinkle.ai.client.warmup.enabled:true}")
+    private Boolean WARMUP_ENABLED;
+
+    @Value("${thinkle.ai.client.warmup.connections:4}")
+    private Integer WARMUP_CONNECTIONS;
+
+    @Value("${thinkle.ai.client.warmup.check-interval-seconds:15}")
+    private Long WARMUP_CHECK_INTERVAL_SECONDS;
+
+    @Value("${thinkle.ai.client.pool.max-connections:50}")
+    private Integer POOL_MAX_CONNECTIONS;
+
+    private final HttpClient geminiHttpClient;
+    private Disposable keepWarm;
+
+    public GeminiConnectionWarmer(@Qualifier("geminiHttpClient") HttpClient geminiHttpClient) {
+        this.geminiHttpClient = geminiHttpClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!WARMUP_ENABLED) {
+            return;
+        }
+
+        URI origin = originOf(geminiApiUrl);
+        if (origin == null) {
+            logger.warn("Skipping AI connection warm-up, could not parse gemini.api.url");
+            return;
+        }
+
+        // Loads the event loops, DNS resolver and native TLS up front, then opens the connections themselves
+        geminiHttpClient.warmup()
+                .then(openConnections(origin, WARMUP_CONNECTIONS))
+                .subscribe(
+                        ignored -> { },
+                        e -> logger.warn("AI connection warm-up failed: {}", e.getMessage()),
+                        () -> logger.info("Pre-opened {} connection(s) to {}", WARMUP_CONNECTIONS, origin)
+                );
+
+        keepWarm = Flux.interval(Duration.ofSeconds(WARMUP_CHECK_INTERVAL_SECONDS))
+                .concatMap(tick -> topUpIdleConnections(origin))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (keepWarm != null) {
+            keepWarm.dispose();
+        }
+    }
+
+    // When the pool has grown under load and its idle connections are used up, open fresh ones ahead of demand
+    private Mono<Void> topUpIdleConnections(URI origin) {
+        double idle = poolGauge("idle.connections");
+        double total = poolGauge("total.connections");
+        int missing = (int) Math.min(WARMUP_CONNECTIONS - idle, POOL_MAX_CONNECTIONS - total);
+
+        if (total == 0 || missing <= 0) {
+            return Mono.empty();
+        }
+        return openConnections(origin, missing);
+    }
+
+    private Mono<Void> openConnections(URI origin, int count) {
+        return Flux.range(0, count)
+                .flatMap(i -> geminiHttpClient.head()
+                        .uri(origin)
+                        .response()
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
+    private double poolGauge(String metric) {
+        return Metrics.globalRegistry.find(POOL_METRIC_PREFIX + metric)
+                .tag("name", GeminiWebClientConfig.GEMINI_POOL_NAME)
+                .gauges()
+                .stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+    }
+
+    private URI originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return null;
+            }
+            return new URI(uri.getScheme(), null, uri.getHost(), uri.getPort(), "/", null, null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
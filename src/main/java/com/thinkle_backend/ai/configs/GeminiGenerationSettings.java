@@ -0,0 +1,43 @@
+package com.thinkle_backend.ai.configs;
+
+import com.thinkle_backend.ai.dtos.GeminiGenerationConfig;
+import com.thinkle_backend.ai.enums.AiFeature;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-feature generationConfig sent with every Gemini request, read once at startup from
+ * thinkle.ai.generation.{word|hint|reply|reply-batch}.*. Capping output tokens and stopping at
+ * the first line keeps short answers (a 5-letter word, a one-line reply) fast and cheap.
+ */
+@Component
+public class GeminiGenerationSettings {
+
+    private static final String PREFIX = "thinkle.ai.generation.";
+
+    private final Map<AiFeature, GeminiGenerationConfig> configs = new EnumMap<>(AiFeature.class);
+
+    public GeminiGenerationSettings(Environment environment) {
+        for (AiFeature feature : AiFeature.values()) {
+            String prefix = PREFIX + feature.name().toLowerCase().replace('_', '-') + '.';
+            // Split by hand, the String[] conversion would trim away a newline stop sequence
+            String stopSequences = environment.getProperty(prefix + "stop-sequences", "");
+
+            configs.put(feature, new GeminiGenerationConfig(
+                    environment.getProperty(prefix + "max-output-tokens", Integer.class),
+                    environment.getProperty(prefix + "temperature", Double.class),
+                    stopSequences.isEmpty() ? null : List.of(stopSequences.split(",")),
+                    environment.getProperty(prefix + "response-mime-type"),
+                    null
+            ));
+        }
+    }
+
+    public GeminiGenerationConfig forFeature(AiFeature feature) {
+        return configs.get(feature);
+    }
+}
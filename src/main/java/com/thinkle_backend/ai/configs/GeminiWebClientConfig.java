@@ -0,0 +1,102 @@
+package com.thinkle_backend.ai.configs;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class GeminiWebClientConfig {
+
+    public static final String GEMINI_POOL_NAME = "gemini";
+
+    @Value("${thinkle.ai.client.connect-timeout-ms:2000}")
+    private Integer CONNECT_TIMEOUT_MS;
+
+    @Value("${thinkle.ai.client.read-timeout-ms:10000}")
+    private Long READ_TIMEOUT_MS;
+
+    @Value("${thinkle.ai.client.http2-enabled:false}")
+    private Boolean HTTP2_ENABLED;
+
+    @Value("${thinkle.ai.client.pool.max-connections:50}")
+    private Integer POOL_MAX_CONNECTIONS;
+
+    @Value("${thinkle.ai.client.pool.pending-acquire-max-count:500}")
+    private Integer POOL_PENDING_ACQUIRE_MAX_COUNT;
+
+    @Value("${thinkle.ai.client.pool.pending-acquire-timeout-ms:2000}")
+    private Long POOL_PENDING_ACQUIRE_TIMEOUT_MS;
+
+    @Value("${thinkle.ai.client.pool.max-idle-time-seconds:60}")
+    private Long POOL_MAX_IDLE_TIME_SECONDS;
+
+    @Value("${thinkle.ai.client.pool.max-life-time-seconds:600}")
+    private Long POOL_MAX_LIFE_TIME_SECONDS;
+
+    @Value("${thinkle.ai.client.pool.evict-interval-seconds:30}")
+    private Long POOL_EVICT_INTERVAL_SECONDS;
+
+    @Value("${thinkle.ai.client.tls.session-cache-size:0}")
+    private Long TLS_SESSION_CACHE_SIZE;
+
+    @Value("${thinkle.ai.client.tls.session-timeout-seconds:3600}")
+    private Long TLS_SESSION_TIMEOUT_SECONDS;
+
+    // Metrics publish acquire latency (pending.connections.time) and pending-acquire count per pool
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder(GEMINI_POOL_NAME)
+                .maxConnections(POOL_MAX_CONNECTIONS)
+                .pendingAcquireMaxCount(POOL_PENDING_ACQUIRE_MAX_COUNT)
+                .pendingAcquireTimeout(Duration.ofMillis(POOL_PENDING_ACQUIRE_TIMEOUT_MS))
+                .maxIdleTime(Duration.ofSeconds(POOL_MAX_IDLE_TIME_SECONDS))
+                .maxLifeTime(Duration.ofSeconds(POOL_MAX_LIFE_TIME_SECONDS))
+                .evictInBackground(Duration.ofSeconds(POOL_EVICT_INTERVAL_SECONDS))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient geminiHttpClient(@Qualifier("geminiConnectionProvider") ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MS)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(READ_TIMEOUT_MS));
+
+        // One shared SSL context per client, so resumed TLS sessions skip the full handshake on new connections
+        if (HTTP2_ENABLED) {
+            return httpClient
+                    .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    .secure(spec -> spec.sslContext(Http2SslContextSpec.forClient()
+                            .configure(builder -> builder
+                                    .sessionCacheSize(TLS_SESSION_CACHE_SIZE)
+                                    .sessionTimeout(TLS_SESSION_TIMEOUT_SECONDS))));
+        }
+
+        return httpClient
+                .secure(spec -> spec.sslContext(Http11SslContextSpec.forClient()
+                        .configure(builder -> builder
+                                .sessionCacheSize(TLS_SESSION_CACHE_SIZE)
+                                .sessionTimeout(TLS_SESSION_TIMEOUT_SECONDS))));
+    }
+
+    @Bean
+    public WebClient geminiWebClient(WebClient.Builder webClientBuilder,
+                                     @Qualifier("geminiHttpClient") HttpClient geminiHttpClient) {
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(geminiHttpClient))
+                .build();
+    }
+}
@@ -1,26 +1,28 @@
 package com.thinkle_backend.ai.controllers;
 
 import com.thinkle_backend.models.WordOfTheDay;
-import com.thinkle_backend.services.WordOfTheDayService;
+import com.thinkle_backend.services.implementations.WordOfTheDayGenerationGuard;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/ai")
 public class Test {
 
-    private final WordOfTheDayService wordOfTheDayService;
+    private final WordOfTheDayGenerationGuard wordOfTheDayGenerationGuard;
 
-    public Test(WordOfTheDayService wordOfTheDayService) {
-        this.wordOfTheDayService = wordOfTheDayService;
+    public Test(WordOfTheDayGenerationGuard wordOfTheDayGenerationGuard) {
+        this.wordOfTheDayGenerationGuard = wordOfTheDayGenerationGuard;
     }
 
     @PostMapping("/word")
     public ResponseEntity<?> word(){
 
-        WordOfTheDay wordOfTheDay = this.wordOfTheDayService.generateWordOfTheDay();
+        WordOfTheDay wordOfTheDay = this.wordOfTheDayGenerationGuard.generate(LocalDate.now());
 
         return ResponseEntity.ok(wordOfTheDay);
     }
@@ -0,0 +1,6 @@
+package com.thinkle_backend.ai.dtos;
+
+import java.util.List;
+
+public record GeminiContent(List<GeminiPart> parts) {
+}
@@ -0,0 +1,19 @@
+package com.thinkle_backend.ai.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+// Unset fields are left out of the request so Gemini applies its own defaults
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GeminiGenerationConfig(Integer maxOutputTokens,
+                                     Double temperature,
+                                     List<String> stopSequences,
+                                     String responseMimeType,
+                                     Map<String, Object> responseSchema) {
+
+    public GeminiGenerationConfig withResponseSchema(Map<String, Object> schema) {
+        return new GeminiGenerationConfig(maxOutputTokens, temperature, stopSequences, responseMimeType, schema);
+    }
+}
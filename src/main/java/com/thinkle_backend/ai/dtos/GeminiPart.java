@@ -0,0 +1,4 @@
+package com.thinkle_backend.ai.dtos;
+
+public record GeminiPart(String text) {
+}
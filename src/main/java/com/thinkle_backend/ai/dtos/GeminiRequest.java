@@ -0,0 +1,13 @@
+package com.thinkle_backend.ai.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GeminiRequest(List<GeminiContent> contents, GeminiGenerationConfig generationConfig) {
+
+    public static GeminiRequest of(String prompt, GeminiGenerationConfig generationConfig) {
+        return new GeminiRequest(List.of(new GeminiContent(List.of(new GeminiPart(prompt)))), generationConfig);
+    }
+}
@@ -0,0 +1,22 @@
+package com.thinkle_backend.ai.dtos;
+
+import java.util.List;
+
+// Only the fields the service reads, everything else in the response is ignored
+public record GeminiResponse(List<Candidate> candidates) {
+
+    public record Candidate(GeminiContent content, String finishReason) {
+    }
+
+    // Text of candidates[0].content.parts[0], or null when this response carries none
+    public String firstText() {
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        GeminiContent content = candidates.get(0).content();
+        if (content == null || content.parts() == null || content.parts().isEmpty()) {
+            return null;
+        }
+        return content.parts().get(0).text();
+    }
+}
@@ -0,0 +1,9 @@
+package com.thinkle_backend.ai.enums;
+
+public enum AiFeature {
+    WORD,
+    HINT,
+    HINT_BATCH,
+    REPLY,
+    REPLY_BATCH
+}
@@ -0,0 +1,8 @@
+package com.thinkle_backend.ai.enums;
+
+public enum AiParserMode {
+    // Decode the body to a String and walk a full JsonNode tree
+    TREE,
+    // Pull tokens straight from the response bytes and skip everything that is not needed
+    STREAMING
+}
@@ -0,0 +1,8 @@
+package com.thinkle_backend.ai.enums;
+
+public enum HintGenerationMode {
+    // One prompt per hint type
+    SINGLE,
+    // One prompt for all hint types answered as a JSON object, missing types are then asked for one by one
+    BATCH
+}
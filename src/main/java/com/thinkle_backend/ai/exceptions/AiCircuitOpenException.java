@@ -0,0 +1,7 @@
+package com.thinkle_backend.ai.exceptions;
+
+public class AiCircuitOpenException extends AiResponseNotGeneratedException {
+    public AiCircuitOpenException(String message) {
+        super(message);
+    }
+}
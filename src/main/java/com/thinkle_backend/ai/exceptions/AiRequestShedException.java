@@ -0,0 +1,8 @@
+package com.thinkle_backend.ai.exceptions;
+
+// The request was dropped before reaching the provider (queue full, waited too long or user quota spent)
+public class AiRequestShedException extends AiResponseNotGeneratedException {
+    public AiRequestShedException(String message) {
+        super(message);
+    }
+}
@@ -1,35 +1,151 @@
 package com.thinkle_backend.ai.features.hintGenerator;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.enums.HintGenerationMode;
 import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
-import com.thinkle_backend.ai.messageParser.AiMessageParser;
 import com.thinkle_backend.ai.prompts.PromptBuilder;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
 import com.thinkle_backend.ai.services.AiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class GenerateHintViaGemini implements HintGenerator{
 
+    private static final Logger logger = LoggerFactory.getLogger(GenerateHintViaGemini.class);
+    private static final TypeReference<Map<String, String>> HINTS_BY_TYPE = new TypeReference<>() {};
+
+    @Value("${thinkle.ai.hints.mode:BATCH}")
+    private HintGenerationMode HINT_GENERATION_MODE;
+
+    @Value("${thinkle.ai.hints.parallelism:4}")
+    private Integer HINT_GENERATION_PARALLELISM;
+
+    @Value("${thinkle.ai.hints.timeout-ms:15000}")
+    private Long HINT_GENERATION_TIMEOUT_MS;
+
     private final AiService aiService;
-    private final AiMessageParser aiMessageParser;
     private final PromptBuilder promptBuilder;
+    private final ObjectMapper objectMapper;
 
     public GenerateHintViaGemini(AiService aiService,
-                                 AiMessageParser aiMessageParser,
-                                 PromptBuilder promptBuilder) {
+                                 PromptBuilder promptBuilder,
+                                 ObjectMapper objectMapper) {
         this.aiService = aiService;
-        this.aiMessageParser = aiMessageParser;
         this.promptBuilder = promptBuilder;
+        this.objectMapper = objectMapper;
     }
 
     @Override
     public String generateHint(String solutionWord, String hintType) {
+        return generateHintAsync(solutionWord, hintType).block();
+    }
+
+    @Override
+    public Mono<String> generateHintAsync(String solutionWord, String hintType) {
+        return Mono.fromSupplier(() -> this.promptBuilder.generateHintPrompt(solutionWord, hintType))
+                .flatMap(prompt -> this.aiService.getAnswerAsync(AiFeature.HINT, prompt))
+                .onErrorMap(e -> new AiResponseNotGeneratedException("Hint could not be generated!"));
+    }
+
+    @Override
+    public Mono<Map<String, String>> generateHintsAsync(String solutionWord, List<String> hintTypes) {
+        Mono<Map<String, String>> batchedHints = Mono.just(Map.of());
+        if (HINT_GENERATION_MODE == HintGenerationMode.BATCH && hintTypes.size() > 1) {
+            batchedHints = generateHintsInOneCall(solutionWord, hintTypes)
+                    .onErrorResume(e -> {
+                        logger.warn("Multi-hint generation failed, asking per hint type: {}", e.getMessage());
+                        return Mono.just(Map.of());
+                    });
+        }
+
+        return batchedHints.flatMap(hints -> fillMissingHints(solutionWord, hintTypes, hints));
+    }
+
+    // The schema makes Gemini answer with every type as a string, the lenient parse still covers other providers
+    private Mono<Map<String, String>> generateHintsInOneCall(String solutionWord, List<String> hintTypes) {
+        return Mono.fromSupplier(() -> this.promptBuilder.generateHintsBatchPrompt(solutionWord, hintTypes))
+                .flatMap(prompt -> this.aiService.getAnswerAsync(AiFeature.HINT_BATCH, prompt)
+                        .contextWrite(AiRequestContext.withResponseSchema(hintsSchema(hintTypes))))
+                .timeout(Duration.ofMillis(HINT_GENERATION_TIMEOUT_MS))
+                .map(answer -> parseHints(answer, hintTypes));
+    }
+
+    private static Map<String, Object> hintsSchema(List<String> hintTypes) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (String hintType : hintTypes) {
+            properties.put(hintType, Map.of("type", "STRING"));
+        }
+        return Map.of(
+                "type", "OBJECT",
+                "properties", properties,
+                "required", List.copyOf(hintTypes),
+                "propertyOrdering", List.copyOf(hintTypes)
+        );
+    }
+
+    // Types the combined answer left out (or every type, in SINGLE mode) get their own call
+    private Mono<Map<String, String>> fillMissingHints(String solutionWord,
+                                                       List<String> hintTypes,
+                                                       Map<String, String> hints) {
+        return Flux.fromIterable(hintTypes)
+                .filter(hintType -> !hints.containsKey(hintType))
+                .flatMap(hintType -> generateHintAsync(solutionWord, hintType)
+                                .timeout(Duration.ofMillis(HINT_GENERATION_TIMEOUT_MS))
+                                .map(text -> Map.entry(hintType, text))
+                                .onErrorResume(e -> {
+                                    logger.warn("Hint generation failed for type '{}': {}", hintType, e.getMessage());
+                                    return Mono.empty();
+                                }),
+                        HINT_GENERATION_PARALLELISM)
+                .collect(() -> new LinkedHashMap<>(hints), (all, hint) -> all.put(hint.getKey(), hint.getValue()));
+    }
+
+    private Map<String, String> parseHints(String answer, List<String> hintTypes) {
+        String json = answer.trim();
+
+        // Models sometimes wrap JSON in a markdown code fence even when asked not to
+        if (json.startsWith("```")) {
+            json = json.substring(json.indexOf('\n') + 1);
+            if (json.endsWith("```")) {
+                json = json.substring(0, json.length() - 3);
+            }
+        }
+
+        Map<String, String> parsed;
         try {
-            String geminiResponse =
-                    this.aiService.getAnswer(this.promptBuilder.generateHintPrompt(solutionWord, hintType));
-            return this.aiMessageParser.extractText(geminiResponse);
+            parsed = objectMapper.readValue(json, HINTS_BY_TYPE);
+        } catch (Exception e) {
+            throw new AiResponseNotGeneratedException("Multi-hint answer was not a JSON object of strings");
         }
-        catch (Exception e){
-            throw new AiResponseNotGeneratedException("Hint could not be generated!");
+
+        // Keys are matched back to the requested types ignoring case, unknown keys and blank hints are dropped
+        Map<String, String> parsedByLowerCaseType = new HashMap<>();
+        parsed.forEach((type, text) -> {
+            if (type != null && text != null && !text.isBlank()) {
+                parsedByLowerCaseType.put(type.trim().toLowerCase(), text.trim());
+            }
+        });
+
+        Map<String, String> hints = new LinkedHashMap<>();
+        for (String hintType : hintTypes) {
+            String text = parsedByLowerCaseType.get(hintType.toLowerCase());
+            if (text != null) {
+                hints.put(hintType, text);
+            }
         }
+        return hints;
     }
 }
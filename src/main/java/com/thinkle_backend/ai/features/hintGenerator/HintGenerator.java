@@ -1,5 +1,13 @@
 package com.thinkle_backend.ai.features.hintGenerator;
 
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
 public interface HintGenerator {
     String generateHint(String solutionWord, String hintType);
+    Mono<String> generateHintAsync(String solutionWord, String hintType);
+    // Hint text keyed by hint type, types that could not be generated are left out
+    Mono<Map<String, String>> generateHintsAsync(String solutionWord, List<String> hintTypes);
 }
@@ -0,0 +1,229 @@
+package com.thinkle_backend.ai.features.replyToGuesses;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import com.thinkle_backend.models.CachedReply;
+import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.repositories.CachedReplyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Two-tier cache in front of the AI oracle reply. Players guessing the same word against the same
+ * word of the day with the same game facts get the same reply, so only the first one pays for a
+ * Gemini call. L1 is a bounded in-process cache, L2 is the cached_reply table shared by all nodes.
+ */
+@Primary
+@Service
+public class CachedReplyToGuessesGenerator implements ReplyToGuessesGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedReplyToGuessesGenerator.class);
+
+    private final ReplyToGuessesGenerator delegate;
+    private final CachedReplyRepository cachedReplyRepository;
+    private final AsyncCache<String, String> l1Cache;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final boolean cacheEnabled;
+    private final boolean l2Enabled;
+    private final int livesBucketSize;
+
+    public CachedReplyToGuessesGenerator(GenerateReplyToGuessesViaGemini delegate,
+                                         CachedReplyRepository cachedReplyRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${thinkle.ai.reply-cache.enabled:true}") boolean cacheEnabled,
+                                         @Value("${thinkle.ai.reply-cache.l2-enabled:true}") boolean l2Enabled,
+                                         @Value("${thinkle.ai.reply-cache.l1-max-size:10000}") long l1MaxSize,
+                                         @Value("${thinkle.ai.reply-cache.l1-ttl-minutes:60}") long l1TtlMinutes,
+                                         @Value("${thinkle.ai.reply-cache.lives-bucket-size:1}") int livesBucketSize) {
+        this.delegate = delegate;
+        this.cachedReplyRepository = cachedReplyRepository;
+        this.cacheEnabled = cacheEnabled;
+        this.l2Enabled = l2Enabled;
+        this.livesBucketSize = Math.max(1, livesBucketSize);
+
+        this.l1Cache = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(l1MaxSize)
+                        .expireAfterWrite(Duration.ofMinutes(l1TtlMinutes))
+                        .recordStats()
+                        .<String, String>buildAsync(),
+                "oracleReplyL1");
+        this.l2Hits = meterRegistry.counter("thinkle.ai.reply.cache.l2", "result", "hit");
+        this.l2Misses = meterRegistry.counter("thinkle.ai.reply.cache.l2", "result", "miss");
+    }
+
+    @Override
+    public String generateReplyToTheGuessedWord(String currentGuess,
+                                                String wordToGuess,
+                                                GameStatus gameStatus,
+                                                Integer remainingLives,
+                                                Long hintsUsed) {
+        return generateReplyToTheGuessedWordAsync(
+                currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed
+        ).block();
+    }
+
+    @Override
+    public Mono<String> generateReplyToTheGuessedWordAsync(String currentGuess,
+                                                           String wordToGuess,
+                                                           GameStatus gameStatus,
+                                                           Integer remainingLives,
+                                                           Long hintsUsed) {
+        if (!cacheEnabled) {
+            return delegate.generateReplyToTheGuessedWordAsync(
+                    currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed);
+        }
+
+        String cacheKey = buildCacheKey(currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed);
+
+        // Concurrent misses on the same key share one load, failed loads are not cached. The load runs in its
+        // own subscription, so the caller's context (e.g. the user id for AI quotas) is handed over explicitly
+        return Mono.deferContextual(context -> Mono.fromFuture(() -> l1Cache.get(cacheKey, (key, executor) ->
+                        loadReply(key, currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed)
+                                .contextWrite(context)
+                                .toFuture()
+                ), true))
+                .doOnNext(reply -> {
+                    // A canned fallback reply should not stick around once the AI is back
+                    if (LocalFallbackAiService.isCannedReply(reply)) {
+                        l1Cache.synchronous().invalidate(cacheKey);
+                    }
+                });
+    }
+
+    @Override
+    public Flux<String> streamReplyToTheGuessedWord(String currentGuess,
+                                                    String wordToGuess,
+                                                    GameStatus gameStatus,
+                                                    Integer remainingLives,
+                                                    Long hintsUsed) {
+        if (!cacheEnabled) {
+            return delegate.streamReplyToTheGuessedWord(
+                    currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed);
+        }
+
+        String cacheKey = buildCacheKey(currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed);
+
+        // A cached (or already loading) reply goes out whole, there is nothing to wait for chunk by chunk
+        CompletableFuture<String> cached = l1Cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return Mono.fromFuture(cached, true).flux();
+        }
+
+        Mono<String> l2Reply = l2Enabled ? findInL2(cacheKey) : Mono.empty();
+
+        return l2Reply.flux().switchIfEmpty(Flux.defer(() -> {
+            StringBuilder fullReply = new StringBuilder();
+            return delegate.streamReplyToTheGuessedWord(currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed)
+                    .doOnNext(fullReply::append)
+                    .doOnComplete(() -> {
+                        // Only a stream that ran to the end is a whole reply worth caching
+                        String reply = fullReply.toString().trim();
+                        if (!reply.isEmpty() && !LocalFallbackAiService.isCannedReply(reply)) {
+                            l1Cache.put(cacheKey, CompletableFuture.completedFuture(reply));
+                            storeInL2(cacheKey, reply);
+                        }
+                    });
+        }));
+    }
+
+    private Mono<String> loadReply(String cacheKey,
+                                   String currentGuess,
+                                   String wordToGuess,
+                                   GameStatus gameStatus,
+                                   Integer remainingLives,
+                                   Long hintsUsed) {
+        Mono<String> generated = delegate
+                .generateReplyToTheGuessedWordAsync(currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed)
+                .doOnNext(reply -> storeInL2(cacheKey, reply));
+
+        if (!l2Enabled) {
+            return generated;
+        }
+
+        return Mono.fromCallable(() -> cachedReplyRepository.findByCacheKey(cacheKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        l2Hits.increment();
+                        return Mono.just(cached.get().getReply());
+                    }
+                    l2Misses.increment();
+                    return generated;
+                });
+    }
+
+    private Mono<String> findInL2(String cacheKey) {
+        return Mono.fromCallable(() -> cachedReplyRepository.findByCacheKey(cacheKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(cached -> {
+                    if (cached.isEmpty()) {
+                        l2Misses.increment();
+                        return Mono.empty();
+                    }
+                    l2Hits.increment();
+                    String reply = cached.get().getReply();
+                    l1Cache.put(cacheKey, CompletableFuture.completedFuture(reply));
+                    return Mono.just(reply);
+                });
+    }
+
+    private void storeInL2(String cacheKey, String reply) {
+        if (!l2Enabled || LocalFallbackAiService.isCannedReply(reply)) {
+            return;
+        }
+
+        Mono.fromRunnable(() -> {
+                    CachedReply cachedReply = new CachedReply();
+                    cachedReply.setCacheKey(cacheKey);
+                    cachedReply.setReply(reply);
+                    cachedReplyRepository.save(cachedReply);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        ignored -> { },
+                        e -> {
+                            if (e instanceof DataIntegrityViolationException) {
+                                logger.debug("Reply for key '{}' was already cached by another node", cacheKey);
+                            } else {
+                                logger.warn("Could not store reply for key '{}' in L2 cache: {}", cacheKey, e.getMessage());
+                            }
+                        }
+                );
+    }
+
+    private String buildCacheKey(String currentGuess,
+                                 String wordToGuess,
+                                 GameStatus gameStatus,
+                                 Integer remainingLives,
+                                 Long hintsUsed) {
+        return wordToGuess.trim().toUpperCase() + '|'
+                + currentGuess.trim().toUpperCase() + '|'
+                + gameStatus + '|'
+                + livesBucket(remainingLives) + '|'
+                + hintsUsed;
+    }
+
+    private String livesBucket(Integer remainingLives) {
+        if (livesBucketSize == 1) {
+            return remainingLives.toString();
+        }
+        int lower = Math.floorDiv(remainingLives, livesBucketSize) * livesBucketSize;
+        return lower + "-" + (lower + livesBucketSize - 1);
+    }
+}
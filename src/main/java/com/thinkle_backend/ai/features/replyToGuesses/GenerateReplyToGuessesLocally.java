@@ -0,0 +1,165 @@
+package com.thinkle_backend.ai.features.replyToGuesses;
+
+import com.thinkle_backend.ai.prompts.PromptTemplate;
+import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.utils.GuessScorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Oracle replies from a local phrase engine: an opening picked by how the guess scored, plus remarks
+ * on lives and hints. The phrases are chosen by a seed derived from the game facts, so the same guess
+ * in the same situation always gets the same reply, and nothing here touches the network.
+ */
+@Service
+public class GenerateReplyToGuessesLocally implements ReplyToGuessesGenerator {
+
+    private static final List<PromptTemplate> WON = compile(
+            "{{guess}}! The oracle bows, the riddle is yours.",
+            "The mists part and {{guess}} shines through. Well played.",
+            "Every letter in its place. The oracle is impressed.",
+            "{{guess}} it is. Few read the signs so well."
+    );
+    private static final List<PromptTemplate> LOST = compile(
+            "The oracle falls silent. The word slips away for today.",
+            "Your lives are spent, seeker. Return tomorrow for a new riddle.",
+            "{{guess}} was not it, and the game is over. The oracle will be waiting tomorrow."
+    );
+    private static final List<PromptTemplate> NO_MATCH = compile(
+            "Not a single letter of {{guess}} belongs here. Cast a wider net.",
+            "{{guess}} echoes into emptiness. None of those letters are in the word.",
+            "The oracle shakes its head, nothing in {{guess}} rings true."
+    );
+    private static final List<PromptTemplate> MISPLACED_ONLY = compile(
+            "{{misplaced}} of your letters belong, but none sit where they should.",
+            "You hold {{misplaced}} right letters in the wrong places. Shuffle your thinking.",
+            "The right letters are wandering. {{misplaced}} of them need a new home."
+    );
+    private static final List<PromptTemplate> CORRECT_ONLY = compile(
+            "{{correct}} letters sit exactly where they belong, the rest are strangers here.",
+            "The oracle nods at {{correct}} of your letters. The others must go.",
+            "{{correct}} in place, nothing else from {{guess}} fits."
+    );
+    private static final List<PromptTemplate> PARTIAL = compile(
+            "{{correct}} letters found their place and {{misplaced}} more are lost nearby.",
+            "Warmer. {{correct}} in position, {{misplaced}} in the word but astray.",
+            "The oracle sees {{correct}} settled and {{misplaced}} still searching."
+    );
+    private static final List<PromptTemplate> CLOSE = compile(
+            "So close the oracle can almost hear it. Just {{remaining}} letter(s) to go.",
+            "{{correct}} letters locked in. The last piece is within reach.",
+            "Nearly there, seeker. Only {{remaining}} letter(s) stand between you and victory."
+    );
+    private static final List<PromptTemplate> LAST_LIFE = compile(
+            " Tread carefully, this is your last life.",
+            " One life remains. Choose wisely."
+    );
+    private static final List<PromptTemplate> LOW_LIVES = compile(
+            " {{lives}} lives left.",
+            " Your lives are thinning, {{lives}} remain."
+    );
+    private static final List<PromptTemplate> NO_HINTS = compile(
+            " No hints used yet, bold.",
+            " Still no hints, the oracle admires your pride."
+    );
+
+    private final long seed;
+
+    public GenerateReplyToGuessesLocally(@Value("${thinkle.ai.reply.local.seed:0}") long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public String generateReplyToTheGuessedWord(String currentGuess,
+                                                String wordToGuess,
+                                                GameStatus gameStatus,
+                                                Integer remainingLives,
+                                                Long hintsUsed) {
+        int pattern = GuessScorer.score(wordToGuess, currentGuess);
+        int correct = GuessScorer.correctCount(pattern);
+        int misplaced = GuessScorer.presentCount(pattern);
+        int wordLength = wordToGuess.length();
+        String guessedWord = currentGuess.toUpperCase();
+
+        // Only values with a stable hash go in, an enum's hashCode differs from one JVM to the next
+        SplittableRandom random = new SplittableRandom(seed ^ Objects.hash(
+                wordToGuess.toUpperCase(), guessedWord, gameStatus.name(), remainingLives, hintsUsed));
+
+        Map<String, String> values = Map.of(
+                "guess", guessedWord,
+                "correct", String.valueOf(correct),
+                "misplaced", String.valueOf(misplaced),
+                "remaining", String.valueOf(wordLength - correct),
+                "lives", String.valueOf(remainingLives)
+        );
+
+        StringBuilder reply = new StringBuilder(96);
+        reply.append(pick(openingFor(gameStatus, correct, misplaced, wordLength), random).render(values));
+
+        if (gameStatus == GameStatus.IN_PROGRESS) {
+            if (remainingLives == 1) {
+                reply.append(pick(LAST_LIFE, random).render(values));
+            } else if (remainingLives <= 3) {
+                reply.append(pick(LOW_LIVES, random).render(values));
+            } else if (hintsUsed == 0 && random.nextInt(3) == 0) {
+                reply.append(pick(NO_HINTS, random).render(values));
+            }
+        }
+        return reply.toString();
+    }
+
+    @Override
+    public Mono<String> generateReplyToTheGuessedWordAsync(String currentGuess,
+                                                           String wordToGuess,
+                                                           GameStatus gameStatus,
+                                                           Integer remainingLives,
+                                                           Long hintsUsed) {
+        return Mono.fromSupplier(() -> generateReplyToTheGuessedWord(
+                currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed));
+    }
+
+    @Override
+    public Flux<String> streamReplyToTheGuessedWord(String currentGuess,
+                                                    String wordToGuess,
+                                                    GameStatus gameStatus,
+                                                    Integer remainingLives,
+                                                    Long hintsUsed) {
+        return generateReplyToTheGuessedWordAsync(currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed)
+                .flux();
+    }
+
+    private List<PromptTemplate> openingFor(GameStatus gameStatus, int correct, int misplaced, int wordLength) {
+        if (gameStatus == GameStatus.WON) {
+            return WON;
+        }
+        if (gameStatus == GameStatus.LOST) {
+            return LOST;
+        }
+        if (correct == 0 && misplaced == 0) {
+            return NO_MATCH;
+        }
+        if (correct == 0) {
+            return MISPLACED_ONLY;
+        }
+        if (correct >= wordLength - 1) {
+            return CLOSE;
+        }
+        return misplaced == 0 ? CORRECT_ONLY : PARTIAL;
+    }
+
+    private static PromptTemplate pick(List<PromptTemplate> phrases, SplittableRandom random) {
+        return phrases.get(random.nextInt(phrases.size()));
+    }
+
+    private static List<PromptTemplate> compile(String... phrases) {
+        return Arrays.stream(phrases).map(PromptTemplate::compile).toList();
+    }
+}
@@ -1,24 +1,23 @@
 package com.thinkle_backend.ai.features.replyToGuesses;
 
+import com.thinkle_backend.ai.enums.AiFeature;
 import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
-import com.thinkle_backend.ai.messageParser.AiMessageParser;
 import com.thinkle_backend.ai.prompts.PromptBuilder;
 import com.thinkle_backend.ai.services.AiService;
 import com.thinkle_backend.models.enums.GameStatus;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class GenerateReplyToGuessesViaGemini implements ReplyToGuessesGenerator{
 
     private final AiService aiService;
-    private final AiMessageParser aiMessageParser;
     private final PromptBuilder promptBuilder;
 
     public GenerateReplyToGuessesViaGemini(AiService aiService,
-                                           AiMessageParser aiMessageParser,
                                            PromptBuilder promptBuilder) {
         this.aiService = aiService;
-        this.aiMessageParser = aiMessageParser;
         this.promptBuilder = promptBuilder;
     }
 
@@ -28,14 +27,32 @@ public class GenerateReplyToGuessesViaGemini implements ReplyToGuessesGenerator{
                                                 GameStatus gameStatus,
                                                 Integer remainingLives,
                                                 Long hintsUsed) {
-        try {
-            String geminiResponse = this.aiService.getAnswer(this.promptBuilder.generateReplyForCurrentGuess(
-                    currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed)
-            );
-            return this.aiMessageParser.extractText(geminiResponse);
-        }
-        catch (Exception e){
-            throw new AiResponseNotGeneratedException("Ai response could not be generated!");
-        }
+        return generateReplyToTheGuessedWordAsync(
+                currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed
+        ).block();
+    }
+
+    @Override
+    public Mono<String> generateReplyToTheGuessedWordAsync(String currentGuess,
+                                                           String wordToGuess,
+                                                           GameStatus gameStatus,
+                                                           Integer remainingLives,
+                                                           Long hintsUsed) {
+        return Mono.fromSupplier(() -> this.promptBuilder.generateReplyForCurrentGuess(
+                        currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed))
+                .flatMap(prompt -> this.aiService.getAnswerAsync(AiFeature.REPLY, prompt))
+                .onErrorMap(e -> new AiResponseNotGeneratedException("Ai response could not be generated!"));
+    }
+
+    @Override
+    public Flux<String> streamReplyToTheGuessedWord(String currentGuess,
+                                                    String wordToGuess,
+                                                    GameStatus gameStatus,
+                                                    Integer remainingLives,
+                                                    Long hintsUsed) {
+        return Mono.fromSupplier(() -> this.promptBuilder.generateReplyForCurrentGuess(
+                        currentGuess, wordToGuess, gameStatus, remainingLives, hintsUsed))
+                .flatMapMany(prompt -> this.aiService.streamAnswer(AiFeature.REPLY, prompt))
+                .onErrorMap(e -> new AiResponseNotGeneratedException("Ai response could not be generated!"));
     }
 }
@@ -1,6 +1,8 @@
 package com.thinkle_backend.ai.features.replyToGuesses;
 
 import com.thinkle_backend.models.enums.GameStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface ReplyToGuessesGenerator {
     String generateReplyToTheGuessedWord(String currentGuess,
@@ -8,4 +10,17 @@ public interface ReplyToGuessesGenerator {
                                          GameStatus gameStatus,
                                          Integer remainingLives,
                                          Long hintsUsed);
+
+    Mono<String> generateReplyToTheGuessedWordAsync(String currentGuess,
+                                                    String wordToGuess,
+                                                    GameStatus gameStatus,
+                                                    Integer remainingLives,
+                                                    Long hintsUsed);
+
+    // Same reply as the async variant, emitted as text chunks while it is being generated
+    Flux<String> streamReplyToTheGuessedWord(String currentGuess,
+                                             String wordToGuess,
+                                             GameStatus gameStatus,
+                                             Integer remainingLives,
+                                             Long hintsUsed);
 }
@@ -0,0 +1,35 @@
+package com.thinkle_backend.ai.features.wordGenerator;
+
+import com.thinkle_backend.dictionary.WordBank;
+import com.thinkle_backend.dictionary.WordDifficulty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+// Picks the word of the day from the local word bank instead of asking Gemini, enabled with thinkle.words.source=WORD_BANK
+@Primary
+@Service
+@ConditionalOnProperty(name = "thinkle.words.source", havingValue = "WORD_BANK")
+public class GenerateWordOfTheDayFromWordBank implements WordOfTheDayGenerator {
+
+    @Value("${thinkle.words.bank.difficulty:ANY}")
+    private WordDifficulty WORD_DIFFICULTY;
+
+    private final WordBank wordBank;
+
+    public GenerateWordOfTheDayFromWordBank(WordBank wordBank) {
+        this.wordBank = wordBank;
+    }
+
+    @Override
+    public String generateWordOfTheDay() {
+        return wordBank.draw(WORD_DIFFICULTY);
+    }
+
+    @Override
+    public Mono<String> generateWordOfTheDayAsync() {
+        return Mono.fromSupplier(this::generateWordOfTheDay);
+    }
+}
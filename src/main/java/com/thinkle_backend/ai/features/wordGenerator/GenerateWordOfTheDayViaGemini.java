@@ -1,34 +1,41 @@
 package com.thinkle_backend.ai.features.wordGenerator;
 
-import com.thinkle_backend.ai.messageParser.AiMessageParser;
+import com.thinkle_backend.ai.enums.AiFeature;
 import com.thinkle_backend.ai.prompts.PromptBuilder;
 import com.thinkle_backend.ai.services.AiService;
-import com.thinkle_backend.utils.WordUtils;
+import com.thinkle_backend.dictionary.WordBank;
+import com.thinkle_backend.dictionary.WordDifficulty;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 @Service
 public class GenerateWordOfTheDayViaGemini implements WordOfTheDayGenerator{
 
+    @Value("${thinkle.words.bank.difficulty:ANY}")
+    private WordDifficulty WORD_DIFFICULTY;
+
     private final AiService aiService;
-    private final AiMessageParser aiMessageParser;
     private final PromptBuilder promptBuilder;
+    private final WordBank wordBank;
 
     public GenerateWordOfTheDayViaGemini(AiService aiService,
-                                         AiMessageParser aiMessageParser,
-                                         PromptBuilder promptBuilder) {
+                                         PromptBuilder promptBuilder,
+                                         WordBank wordBank) {
         this.aiService = aiService;
-        this.aiMessageParser = aiMessageParser;
         this.promptBuilder = promptBuilder;
+        this.wordBank = wordBank;
     }
 
     @Override
     public String generateWordOfTheDay() {
-        try {
-            String geminiResponse = this.aiService.getAnswer(this.promptBuilder.generateWordPrompt());
-            return this.aiMessageParser.extractText(geminiResponse);
-        }
-        catch (Exception e){
-            return WordUtils.getRandomLocalWord();
-        }
+        return generateWordOfTheDayAsync().block();
+    }
+
+    @Override
+    public Mono<String> generateWordOfTheDayAsync() {
+        return Mono.fromSupplier(this.promptBuilder::generateWordPrompt)
+                .flatMap(prompt -> this.aiService.getAnswerAsync(AiFeature.WORD, prompt))
+                .onErrorResume(e -> Mono.fromSupplier(() -> wordBank.draw(WORD_DIFFICULTY)));
     }
 }
@@ -1,5 +1,8 @@
 package com.thinkle_backend.ai.features.wordGenerator;
 
+import reactor.core.publisher.Mono;
+
 public interface WordOfTheDayGenerator {
     String generateWordOfTheDay();
+    Mono<String> generateWordOfTheDayAsync();
 }
@@ -1,5 +1,13 @@
 package com.thinkle_backend.ai.messageParser;
 
+import java.io.InputStream;
+
 public interface AiMessageParser {
     String extractText(String aiResponseInJson);
+
+    // Reads the answer text and token usage straight from the response body, without building a tree
+    AiParsedResponse parse(InputStream aiResponseBody);
+
+    // For one chunk of a streamed response: the text as-is (not trimmed), or empty when the chunk carries none
+    String extractChunkText(String aiChunkInJson);
 }
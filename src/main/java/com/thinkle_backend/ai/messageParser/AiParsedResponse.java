@@ -0,0 +1,8 @@
+package com.thinkle_backend.ai.messageParser;
+
+// Token counts are 0 when the provider did not report them
+public record AiParsedResponse(String text,
+                               int promptTokenCount,
+                               int candidatesTokenCount,
+                               int totalTokenCount) {
+}
@@ -1,17 +1,31 @@
 package com.thinkle_backend.ai.messageParser;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.thinkle_backend.ai.dtos.GeminiResponse;
 import com.thinkle_backend.ai.exceptions.AiMessageParserException;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @Component
 public class GeminiMessageParser implements AiMessageParser{
 
+    // candidates[0].content.parts[0].text, a null step means "first array element"
+    private static final String[] TEXT_PATH = {"candidates", null, "content", "parts", null, "text"};
+
     private final ObjectMapper objectMapper;
+    private final ObjectReader chunkReader;
 
     public GeminiMessageParser(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.chunkReader = objectMapper.readerFor(GeminiResponse.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
     }
 
     @Override
@@ -39,5 +53,109 @@ public class GeminiMessageParser implements AiMessageParser{
             throw new AiMessageParserException("Failed to parse Gemini response");
         }
     }
-}
 
+    @Override
+    public AiParsedResponse parse(InputStream aiResponseBody) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(aiResponseBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new AiMessageParserException("Failed to map the response");
+            }
+
+            String text = null;
+            int[] usage = null;
+
+            // Top-level fields other than candidates and usageMetadata are skipped without being materialized,
+            // and reading stops once both are known (usageMetadata normally comes after candidates)
+            while ((text == null || usage == null) && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+
+                if (text == null && TEXT_PATH[0].equals(fieldName)) {
+                    text = findText(parser, 1);
+                } else if (usage == null && "usageMetadata".equals(fieldName)) {
+                    usage = readUsage(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (text == null) {
+                throw new AiMessageParserException("Failed to map the response");
+            }
+            if (usage == null) {
+                usage = new int[3];
+            }
+            return new AiParsedResponse(text.trim(), usage[0], usage[1], usage[2]);
+        } catch (AiMessageParserException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AiMessageParserException("Failed to parse Gemini response");
+        }
+    }
+
+    // Consumes the current value completely and returns the string found at TEXT_PATH[step..], if any
+    private String findText(JsonParser parser, int step) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (step == TEXT_PATH.length) {
+            return token == JsonToken.VALUE_STRING ? parser.getText() : null;
+        }
+
+        String found = null;
+        if (token == JsonToken.START_OBJECT && TEXT_PATH[step] != null) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                parser.nextToken();
+                if (found == null && TEXT_PATH[step].equals(fieldName)) {
+                    found = findText(parser, step + 1);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && TEXT_PATH[step] == null) {
+            boolean firstElement = true;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (firstElement) {
+                    found = findText(parser, step + 1);
+                    firstElement = false;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return found;
+    }
+
+    // promptTokenCount, candidatesTokenCount, totalTokenCount
+    private int[] readUsage(JsonParser parser) throws IOException {
+        int[] usage = new int[3];
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return usage;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            int value = valueToken == JsonToken.VALUE_NUMBER_INT ? parser.getIntValue() : 0;
+            switch (fieldName) {
+                case "promptTokenCount" -> usage[0] = value;
+                case "candidatesTokenCount" -> usage[1] = value;
+                case "totalTokenCount" -> usage[2] = value;
+                default -> parser.skipChildren();
+            }
+        }
+        return usage;
+    }
+
+    @Override
+    public String extractChunkText(String aiChunkInJson) {
+        try {
+            String text = chunkReader.<GeminiResponse>readValue(aiChunkInJson).firstText();
+            return text == null ? "" : text;
+        } catch (Exception e) {
+            throw new AiMessageParserException("Failed to parse Gemini stream chunk");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.thinkle_backend.ai.prompts;
 import com.thinkle_backend.models.enums.GameStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -14,24 +15,38 @@ public class PromptBuilder {
     }
 
     public String generateWordPrompt() {
-        return promptService.loadPromptTemplate("generate_word.txt");
+        return promptService.getTemplate("generate_word.txt").render();
     }
 
     public String generateHintPrompt(String solutionWord, String hintType) {
-        String template = promptService.loadPromptTemplate("generate_hint.txt");
-        return promptService.renderPrompt(template, Map.of(
+        return promptService.getTemplate("generate_hint.txt").render(Map.of(
                 "word", solutionWord,
                 "hintType", hintType
         ));
     }
 
+    public String generateHintsBatchPrompt(String solutionWord, List<String> hintTypes) {
+        StringBuilder hintTypeLines = new StringBuilder();
+        for (String hintType : hintTypes) {
+            if (!hintTypeLines.isEmpty()) {
+                hintTypeLines.append('\n');
+            }
+            hintTypeLines.append("<hint type=\"").append(hintType).append("\"/>");
+        }
+
+        return promptService.getTemplate("generate_hints_batch.txt").render(Map.of(
+                "word", solutionWord,
+                "count", String.valueOf(hintTypes.size()),
+                "hintTypes", hintTypeLines.toString()
+        ));
+    }
+
     public String generateReplyForCurrentGuess(String currentGuess,
                                                String wordToGuess,
                                                GameStatus gameStatus,
                                                Integer remainingLives,
                                                Long hintsUsed) {
-        String template = promptService.loadPromptTemplate("reply_to_guess.txt");
-        return promptService.renderPrompt(template, Map.of(
+        return promptService.getTemplate("reply_to_guess.txt").render(Map.of(
                 "word", wordToGuess,
                 "guess", currentGuess,
                 "status", gameStatus.toString(),
@@ -39,4 +54,18 @@ public class PromptBuilder {
                 "hintsUsed", hintsUsed.toString()
         ));
     }
+
+    public String generateBatchPrompt(List<String> prompts) {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < prompts.size(); i++) {
+            requests.append("<request id=\"").append(i + 1).append("\">\n")
+                    .append(prompts.get(i))
+                    .append("\n</request>\n");
+        }
+
+        return promptService.getTemplate("batch_requests.txt").render(Map.of(
+                "count", String.valueOf(prompts.size()),
+                "requests", requests.toString()
+        ));
+    }
 }
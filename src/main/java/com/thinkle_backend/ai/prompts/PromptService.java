@@ -1,27 +1,70 @@
 package com.thinkle_backend.ai.prompts;
 
-import org.springframework.core.io.ClassPathResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Templates are read through the resource stream (works inside a packaged jar) and compiled once at startup
 @Service
 public class PromptService {
-    public String loadPromptTemplate(String filename) {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptService.class);
+    private static final String PROMPTS_LOCATION = "classpath*:prompts/";
+
+    private final PathMatchingResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final Map<String, PromptTemplate> templates = new ConcurrentHashMap<>();
+    private final boolean reloadEnabled;
+
+    public PromptService(@Value("${thinkle.ai.prompts.reload-enabled:false}") boolean reloadEnabled) {
+        this.reloadEnabled = reloadEnabled;
+        preloadTemplates();
+    }
+
+    // With reload enabled (development), the file is read again on every call so edits show up without a restart
+    public PromptTemplate getTemplate(String filename) {
+        if (reloadEnabled) {
+            return compileTemplate(filename);
+        }
+        return templates.computeIfAbsent(filename, this::compileTemplate);
+    }
+
+    private void preloadTemplates() {
         try {
-            ClassPathResource resource = new ClassPathResource("prompts/" + filename);
-            return Files.readString(resource.getFile().toPath());
+            for (Resource resource : resourceResolver.getResources(PROMPTS_LOCATION + "*.txt")) {
+                String filename = resource.getFilename();
+                if (filename != null) {
+                    templates.put(filename, compileTemplate(resource));
+                }
+            }
+            logger.info("Loaded {} prompt template(s)", templates.size());
         } catch (IOException e) {
-            throw new RuntimeException("Failed to load prompt: " + filename, e);
+            // Anything not preloaded is loaded on first use instead
+            logger.warn("Could not preload prompt templates: {}", e.getMessage());
+        }
+    }
+
+    private PromptTemplate compileTemplate(String filename) {
+        Resource resource = resourceResolver.getResource("classpath:prompts/" + filename);
+        if (!resource.exists()) {
+            throw new RuntimeException("Failed to load prompt: " + filename);
         }
+        return compileTemplate(resource);
     }
 
-    public String renderPrompt(String template, Map<String, String> values) {
-        for (Map.Entry<String, String> entry : values.entrySet()) {
-            template = template.replace("{{" + entry.getKey() + "}}", entry.getValue());
+    private PromptTemplate compileTemplate(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return PromptTemplate.compile(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load prompt: " + resource.getFilename(), e);
         }
-        return template;
     }
 }
@@ -0,0 +1,76 @@
+package com.thinkle_backend.ai.prompts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prompt template split once into literal text and {{placeholder}} segments, so rendering is a
+ * single pass over the segments instead of one String.replace per placeholder.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals[i] comes before placeholders[i], the last literal closes the template
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private PromptTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static PromptTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = template.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : template.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            literals.add(template.substring(position, open));
+            placeholders.add(template.substring(open + OPEN.length(), close));
+            position = close + CLOSE.length();
+        }
+        literals.add(template.substring(position));
+
+        return new PromptTemplate(literals.toArray(String[]::new), placeholders.toArray(String[]::new));
+    }
+
+    // Placeholders without a value are left in place, as {{name}}
+    public String render(Map<String, String> values) {
+        int capacity = literalLength;
+        for (String placeholder : placeholders) {
+            String value = values.get(placeholder);
+            capacity += value != null ? value.length() : placeholder.length() + OPEN.length() + CLOSE.length();
+        }
+
+        StringBuilder rendered = new StringBuilder(capacity);
+        for (int i = 0; i < placeholders.length; i++) {
+            rendered.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                rendered.append(value);
+            } else {
+                rendered.append(OPEN).append(placeholders[i]).append(CLOSE);
+            }
+        }
+        return rendered.append(literals[placeholders.length]).toString();
+    }
+
+    public String render() {
+        return render(Map.of());
+    }
+}
@@ -0,0 +1,143 @@
+package com.thinkle_backend.ai.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last {@code slidingWindowSize}
+ * calls reaches the threshold, rejects calls while open, and after {@code openDuration} lets a
+ * limited number of half-open probes through to decide whether to close again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final boolean[] outcomes;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCalls;
+
+    private State state = State.CLOSED;
+    private int recordedCalls;
+    private int failedCalls;
+    private int nextOutcome;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(String name,
+                          double failureRatePercentThreshold,
+                          int slidingWindowSize,
+                          int minimumCalls,
+                          Duration openDuration,
+                          int halfOpenProbes,
+                          MeterRegistry meterRegistry) {
+        this.name = name;
+        this.failureRateThreshold = failureRatePercentThreshold / 100.0;
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.outcomes = new boolean[slidingWindowSize];
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("thinkle.ai.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejectedCalls = meterRegistry.counter("thinkle.ai.circuit.rejected", "name", name);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejectedCalls.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                rejectedCalls.increment();
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    // Gives back a permit that was acquired but never produced an outcome, e.g. a cancelled call
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls >= minimumCalls
+                && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (newState == State.CLOSED) {
+            recordedCalls = 0;
+            failedCalls = 0;
+            nextOutcome = 0;
+        }
+        meterRegistry.counter("thinkle.ai.circuit.transitions", "name", name, "to", newState.name()).increment();
+    }
+}
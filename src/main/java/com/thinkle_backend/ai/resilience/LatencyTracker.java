@@ -0,0 +1,50 @@
+package com.thinkle_backend.ai.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+// Keeps the most recent successful call latencies and answers percentile queries over them
+public class LatencyTracker {
+
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples;
+    private final double percentile;
+    private final int minSamples;
+
+    private int count;
+    private int next;
+    private int sinceRecompute;
+    private long cachedPercentileNanos = -1;
+
+    public LatencyTracker(int windowSize, double percentile, int minSamples) {
+        this.samples = new long[windowSize];
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, windowSize);
+    }
+
+    public synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        sinceRecompute++;
+    }
+
+    // Empty until enough samples have been collected to trust the percentile
+    public synchronized Optional<Duration> percentile() {
+        if (count < minSamples) {
+            return Optional.empty();
+        }
+        if (cachedPercentileNanos < 0 || sinceRecompute >= RECOMPUTE_EVERY) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            cachedPercentileNanos = sorted[Math.max(0, Math.min(index, count - 1))];
+            sinceRecompute = 0;
+        }
+        return Optional.of(Duration.ofNanos(cachedPercentileNanos));
+    }
+}
@@ -0,0 +1,234 @@
+package com.thinkle_backend.ai.resilience;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiCircuitOpenException;
+import com.thinkle_backend.ai.exceptions.AiRequestShedException;
+import com.thinkle_backend.ai.services.AiService;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Wraps an AiService with a circuit breaker, budgeted retries with jittered backoff, optional
+ * hedged requests past a latency percentile, and per-feature local fallbacks.
+ */
+public class ResilientAiService implements AiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientAiService.class);
+
+    private final AiService delegate;
+    private final LocalFallbackAiService fallbackAiService;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final MeterRegistry meterRegistry;
+    private final Map<AiFeature, LatencyTracker> latencyTrackers = new EnumMap<>(AiFeature.class);
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final boolean hedgingEnabled;
+    private final boolean fallbackEnabled;
+
+    public ResilientAiService(AiService delegate,
+                              LocalFallbackAiService fallbackAiService,
+                              CircuitBreaker circuitBreaker,
+                              RetryBudget retryBudget,
+                              MeterRegistry meterRegistry,
+                              int maxRetries,
+                              Duration baseBackoff,
+                              Duration maxBackoff,
+                              boolean hedgingEnabled,
+                              double hedgingPercentile,
+                              int hedgingMinSamples,
+                              boolean fallbackEnabled) {
+        this.delegate = delegate;
+        this.fallbackAiService = fallbackAiService;
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.hedgingEnabled = hedgingEnabled;
+        this.fallbackEnabled = fallbackEnabled;
+
+        for (AiFeature feature : AiFeature.values()) {
+            latencyTrackers.put(feature, new LatencyTracker(256, hedgingPercentile, hedgingMinSamples));
+        }
+    }
+
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
+
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        // Only the caller's request deposits into the budget, the retries resubscribing below withdraw from it
+        return Mono.defer(() -> {
+                    retryBudget.recordRequest();
+                    return Mono.defer(() -> hedgedCall(feature, question))
+                            .retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                                Throwable failure = signal.failure();
+                                if (signal.totalRetries() >= maxRetries || !isRetryable(failure) || !retryBudget.tryWithdraw()) {
+                                    return Mono.error(failure);
+                                }
+                                meterRegistry.counter("thinkle.ai.retries", "feature", feature.name()).increment();
+                                return Mono.delay(RetryBudget.backoff(signal.totalRetries(), baseBackoff, maxBackoff));
+                            })));
+                })
+                .onErrorResume(e -> fallback(feature, question, e));
+    }
+
+    // Streams are neither retried nor hedged, chunks already sent cannot be taken back. A stream that fails
+    // before its first chunk still gets the local fallback, one that fails midway just ends with the error.
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        return Flux.defer(() -> {
+            AtomicBoolean chunkEmitted = new AtomicBoolean();
+            return guardedStream(feature, question)
+                    .doOnNext(chunk -> chunkEmitted.set(true))
+                    .onErrorResume(e -> chunkEmitted.get() ? Flux.error(e) : fallback(feature, question, e).flux());
+        });
+    }
+
+    private Flux<String> guardedStream(AiFeature feature, String question) {
+        return Flux.defer(() -> {
+            retryBudget.recordRequest();
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Flux.error(new AiCircuitOpenException("AI provider circuit is open"));
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long startedAt = System.nanoTime();
+            AtomicBoolean firstChunk = new AtomicBoolean(true);
+            return delegate.streamAnswer(feature, question)
+                    .doOnNext(chunk -> {
+                        // Time to first chunk is what the player actually waits for
+                        if (firstChunk.getAndSet(false)) {
+                            Timer.builder("thinkle.ai.stream.first-chunk")
+                                    .tag("feature", feature.name())
+                                    .register(meterRegistry)
+                                    .record(Duration.ofNanos(System.nanoTime() - startedAt));
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        circuitBreaker.onSuccess();
+                        sample.stop(callTimer(feature, "success"));
+                    })
+                    .doOnError(e -> {
+                        onCallFailure(e);
+                        sample.stop(callTimer(feature, "failure"));
+                    })
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    private Mono<String> hedgedCall(AiFeature feature, String question) {
+        Mono<String> primary = guardedCall(feature, question);
+
+        Optional<Duration> hedgeDelay = hedgingEnabled ? latencyTrackers.get(feature).percentile() : Optional.empty();
+        if (hedgeDelay.isEmpty()) {
+            return primary;
+        }
+
+        // The hedge only fires if the primary is still running after the delay. Whichever call answers first wins,
+        // a failure only decides the outcome once neither call can answer, and then it is the primary's failure.
+        // The state below is per attempt, every retry calls this method again
+        AtomicReference<Throwable> primaryFailure = new AtomicReference<>();
+        Sinks.One<Boolean> primaryFailed = Sinks.one();
+
+        Mono<String> hedge = Mono.delay(hedgeDelay.get())
+                .takeUntilOther(primaryFailed.asMono())
+                .filter(tick -> retryBudget.tryWithdraw())
+                .flatMap(tick -> {
+                    meterRegistry.counter("thinkle.ai.hedges", "feature", feature.name(), "result", "fired").increment();
+                    return guardedCall(feature, question)
+                            .doOnNext(answer -> meterRegistry.counter("thinkle.ai.hedges",
+                                    "feature", feature.name(), "result", "won").increment());
+                })
+                .onErrorResume(e -> Mono.empty());
+
+        return Mono.firstWithValue(
+                        primary.doOnError(e -> {
+                            primaryFailure.set(e);
+                            primaryFailed.tryEmitValue(true);
+                        }),
+                        hedge)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> primaryFailure.get() != null ? primaryFailure.get() : e);
+    }
+
+    private Mono<String> guardedCall(AiFeature feature, String question) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return Mono.error(new AiCircuitOpenException("AI provider circuit is open"));
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long startedAt = System.nanoTime();
+            return delegate.getAnswerAsync(feature, question)
+                    .doOnSuccess(answer -> {
+                        circuitBreaker.onSuccess();
+                        latencyTrackers.get(feature).record(Duration.ofNanos(System.nanoTime() - startedAt));
+                        sample.stop(callTimer(feature, "success"));
+                    })
+                    .doOnError(e -> {
+                        onCallFailure(e);
+                        sample.stop(callTimer(feature, "failure"));
+                    })
+                    .doOnCancel(circuitBreaker::releasePermission);
+        });
+    }
+
+    // Shed calls never reached the provider, so they say nothing about its health
+    private void onCallFailure(Throwable failure) {
+        if (failure instanceof AiRequestShedException) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private Mono<String> fallback(AiFeature feature, String question, Throwable failure) {
+        if (!fallbackEnabled || !fallbackAiService.supports(feature)) {
+            return Mono.error(failure);
+        }
+        logger.warn("AI call for {} failed, serving local fallback: {}", feature, failure.getMessage());
+        meterRegistry.counter("thinkle.ai.fallbacks", "feature", feature.name()).increment();
+        return fallbackAiService.getAnswerAsync(feature, question);
+    }
+
+    private Timer callTimer(AiFeature feature, String outcome) {
+        return Timer.builder("thinkle.ai.calls")
+                .tag("feature", feature.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Client errors other than rate limiting will fail the same way again
+    private boolean isRetryable(Throwable failure) {
+        if (failure instanceof AiCircuitOpenException || failure instanceof AiRequestShedException) {
+            return false;
+        }
+        if (failure instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.thinkle_backend.ai.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Caps retries (and hedged requests) to a fraction of the live traffic so that a slow or failing
+ * provider is not hit with a retry storm. Every request deposits {@code ratio} of a token, every
+ * retry withdraws a whole one, and a small per-second reserve keeps retries possible at low traffic.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double minRetriesPerSecond;
+    private final double maxBalance;
+    private final Counter allowedRetries;
+    private final Counter exhaustedRetries;
+
+    private double balance;
+    private long lastRefillAt = System.nanoTime();
+
+    public RetryBudget(double ratio, double minRetriesPerSecond, MeterRegistry meterRegistry) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.maxBalance = Math.max(1.0, minRetriesPerSecond * 10);
+        this.balance = maxBalance;
+        this.allowedRetries = meterRegistry.counter("thinkle.ai.retry.budget", "result", "allowed");
+        this.exhaustedRetries = meterRegistry.counter("thinkle.ai.retry.budget", "result", "exhausted");
+    }
+
+    public synchronized void recordRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (balance >= 1.0) {
+            balance -= 1.0;
+            allowedRetries.increment();
+            return true;
+        }
+        exhaustedRetries.increment();
+        return false;
+    }
+
+    // Exponential backoff with full jitter
+    public static Duration backoff(long attempt, Duration base, Duration max) {
+        long cap = Math.min(max.toMillis(), base.toMillis() * (1L << Math.min(attempt, 20)));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillAt) / 1_000_000_000.0;
+        lastRefillAt = now;
+        balance = Math.min(maxBalance, balance + elapsedSeconds * minRetriesPerSecond);
+    }
+}
@@ -0,0 +1,5 @@
+package com.thinkle_backend.ai.routing;
+
+// An extra Gemini model or endpoint, bound from thinkle.ai.routing.providers[n]; a blank key reuses gemini.api.key
+public record AiEndpointProperties(String name, String url, String streamUrl, String key) {
+}
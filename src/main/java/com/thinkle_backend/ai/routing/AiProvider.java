@@ -0,0 +1,14 @@
+package com.thinkle_backend.ai.routing;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.services.AiService;
+
+import java.util.Set;
+
+// A provider the router can send work to, listed in order of preference
+public record AiProvider(String name, AiService aiService, Set<AiFeature> features) {
+
+    public boolean supports(AiFeature feature) {
+        return features.contains(feature);
+    }
+}
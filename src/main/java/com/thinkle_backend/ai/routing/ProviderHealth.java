@@ -0,0 +1,113 @@
+package com.thinkle_backend.ai.routing;
+
+import java.time.Duration;
+
+/**
+ * EWMA latency and error rate of one provider for one feature. A provider whose error rate or latency crosses its
+ * limit is retired for a cool-down; after that a single probe request decides whether it comes back. A provider
+ * the router passes over for being slow only learns it got faster from calls it serves, so once its last sample
+ * is older than the probe interval it may take a single probe too.
+ */
+public class ProviderHealth {
+
+    private final double alpha;
+    private final int minSamples;
+    private final double maxErrorRate;
+    private final double retireLatencyMs;
+    private final long coolDownNanos;
+    private final long probeIntervalNanos;
+
+    private double latencyMs = Double.NaN;
+    private double errorRate;
+    private long samples;
+    private long lastSampleAtNanos;
+    private boolean retired;
+    private long retiredUntilNanos;
+    private boolean probeInFlight;
+
+    public ProviderHealth(double alpha, int minSamples, double maxErrorRate, double retireLatencyMs,
+                          Duration coolDown, Duration probeInterval) {
+        this.alpha = alpha;
+        this.minSamples = minSamples;
+        this.maxErrorRate = maxErrorRate;
+        this.retireLatencyMs = retireLatencyMs;
+        this.coolDownNanos = coolDown.toNanos();
+        this.probeIntervalNanos = probeInterval.toNanos();
+    }
+
+    // NaN when nothing is known yet (or a retired provider is due for a probe), infinity while retired
+    public synchronized double routingLatencyMs(long nowNanos) {
+        if (!retired) {
+            return latencyMs;
+        }
+        return nowNanos >= retiredUntilNanos && !probeInFlight ? Double.NaN : Double.POSITIVE_INFINITY;
+    }
+
+    public synchronized boolean tryAcquire(long nowNanos) {
+        if (!retired) {
+            return true;
+        }
+        if (nowNanos >= retiredUntilNanos && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    // For a provider that is not retired but was passed over: one call at a time once its latency is stale
+    public synchronized boolean tryAcquireProbe(long nowNanos) {
+        if (retired || probeInFlight || samples == 0 || nowNanos - lastSampleAtNanos < probeIntervalNanos) {
+            return false;
+        }
+        probeInFlight = true;
+        return true;
+    }
+
+    // Returns true when this outcome retired the provider
+    public synchronized boolean record(boolean success, long latencyNanos, long nowNanos) {
+        double millis = latencyNanos / 1_000_000.0;
+        lastSampleAtNanos = nowNanos;
+
+        if (retired) {
+            probeInFlight = false;
+            if (success) {
+                retired = false;
+                latencyMs = millis;
+                errorRate = 0;
+                samples = 1;
+            } else {
+                retiredUntilNanos = nowNanos + coolDownNanos;
+            }
+            return false;
+        }
+
+        probeInFlight = false;
+        latencyMs = samples == 0 ? millis : alpha * millis + (1 - alpha) * latencyMs;
+        errorRate = alpha * (success ? 0 : 1) + (1 - alpha) * errorRate;
+        samples++;
+
+        if (samples >= minSamples && (errorRate > maxErrorRate || latencyMs > retireLatencyMs)) {
+            retired = true;
+            retiredUntilNanos = nowNanos + coolDownNanos;
+            return true;
+        }
+        return false;
+    }
+
+    // A cancelled call tells nothing about the provider, it only frees the probe slot
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    public synchronized double latencyMs() {
+        return latencyMs;
+    }
+
+    public synchronized double errorRate() {
+        return errorRate;
+    }
+
+    public synchronized boolean isRetired() {
+        return retired;
+    }
+}
@@ -0,0 +1,162 @@
+package com.thinkle_backend.ai.routing;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
+import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Sends each call to the most preferred provider whose EWMA latency fits the feature's latency budget.
+ * When none fits, the fastest available provider gets it. Health is kept per provider and feature, since a
+ * batched hint call is slower than a reply by nature; a provider that degrades for a feature is retired
+ * for that feature by its ProviderHealth and comes back after a successful probe.
+ */
+public class RoutingAiService implements AiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingAiService.class);
+
+    private final List<AiProvider> providers;
+    private final Map<String, Map<AiFeature, ProviderHealth>> health = new LinkedHashMap<>();
+    private final Map<AiFeature, Duration> latencyBudgets;
+    private final MeterRegistry meterRegistry;
+
+    public RoutingAiService(List<AiProvider> providers,
+                            Function<AiProvider, ProviderHealth> healthFactory,
+                            Map<AiFeature, Duration> latencyBudgets,
+                            MeterRegistry meterRegistry) {
+        this.providers = List.copyOf(providers);
+        this.latencyBudgets = latencyBudgets;
+        this.meterRegistry = meterRegistry;
+
+        for (AiProvider provider : this.providers) {
+            Map<AiFeature, ProviderHealth> featureHealth = new EnumMap<>(AiFeature.class);
+            for (AiFeature feature : provider.features()) {
+                ProviderHealth providerHealth = healthFactory.apply(provider);
+                featureHealth.put(feature, providerHealth);
+
+                Gauge.builder("thinkle.ai.router.latency", providerHealth, ProviderHealth::latencyMs)
+                        .tag("provider", provider.name())
+                        .tag("feature", feature.name())
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry);
+                Gauge.builder("thinkle.ai.router.error.rate", providerHealth, ProviderHealth::errorRate)
+                        .tag("provider", provider.name())
+                        .tag("feature", feature.name())
+                        .register(meterRegistry);
+                Gauge.builder("thinkle.ai.router.retired", providerHealth, h -> h.isRetired() ? 1 : 0)
+                        .tag("provider", provider.name())
+                        .tag("feature", feature.name())
+                        .register(meterRegistry);
+            }
+            health.put(provider.name(), featureHealth);
+        }
+    }
+
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
+
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        return Mono.defer(() -> {
+            AiProvider provider = choose(feature);
+            if (provider == null) {
+                return Mono.error(new AiResponseNotGeneratedException("No AI provider available for " + feature));
+            }
+
+            long startedAt = System.nanoTime();
+            AtomicBoolean answered = new AtomicBoolean();
+            // Some subscribers cancel right after the value arrives, that still counts as a success
+            return provider.aiService().getAnswerAsync(feature, question)
+                    .doOnNext(answer -> answered.set(true))
+                    .doFinally(signal -> onFinished(provider, feature, signal, answered.get(), startedAt));
+        });
+    }
+
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        return Flux.defer(() -> {
+            AiProvider provider = choose(feature);
+            if (provider == null) {
+                return Flux.error(new AiResponseNotGeneratedException("No AI provider available for " + feature));
+            }
+
+            long startedAt = System.nanoTime();
+            return provider.aiService().streamAnswer(feature, question)
+                    .doFinally(signal -> onFinished(provider, feature, signal, false, startedAt));
+        });
+    }
+
+    private AiProvider choose(AiFeature feature) {
+        long now = System.nanoTime();
+        double budgetMs = latencyBudgets.getOrDefault(feature, Duration.ofMillis(Long.MAX_VALUE)).toMillis();
+
+        AiProvider fastest = null;
+        double fastestLatencyMs = Double.POSITIVE_INFINITY;
+
+        for (AiProvider provider : providers) {
+            if (!provider.supports(feature)) {
+                continue;
+            }
+            ProviderHealth providerHealth = healthOf(provider, feature);
+            double latencyMs = providerHealth.routingLatencyMs(now);
+
+            // Unknown latency counts as fitting, that is how new and recovering providers get traffic
+            if ((Double.isNaN(latencyMs) || latencyMs <= budgetMs) && providerHealth.tryAcquire(now)) {
+                return routed(provider, feature);
+            }
+            // Over budget, its latency only changes when it serves a call, so now and then it gets one
+            if (latencyMs > budgetMs && providerHealth.tryAcquireProbe(now)) {
+                return routed(provider, feature);
+            }
+            if (latencyMs < fastestLatencyMs) {
+                fastest = provider;
+                fastestLatencyMs = latencyMs;
+            }
+        }
+
+        if (fastest != null && healthOf(fastest, feature).tryAcquire(now)) {
+            return routed(fastest, feature);
+        }
+        return null;
+    }
+
+    private AiProvider routed(AiProvider provider, AiFeature feature) {
+        meterRegistry.counter("thinkle.ai.router.routed", "provider", provider.name(), "feature", feature.name())
+                .increment();
+        return provider;
+    }
+
+    private ProviderHealth healthOf(AiProvider provider, AiFeature feature) {
+        return health.get(provider.name()).get(feature);
+    }
+
+    private void onFinished(AiProvider provider, AiFeature feature, SignalType signal, boolean answered, long startedAt) {
+        ProviderHealth providerHealth = healthOf(provider, feature);
+        if (signal == SignalType.CANCEL && !answered) {
+            providerHealth.release();
+            return;
+        }
+
+        long now = System.nanoTime();
+        if (providerHealth.record(signal != SignalType.ON_ERROR, now - startedAt, now)) {
+            logger.warn("Retiring AI provider '{}' for {} (latency {} ms, error rate {})", provider.name(), feature,
+                    Math.round(providerHealth.latencyMs()), String.format("%.2f", providerHealth.errorRate()));
+        }
+    }
+}
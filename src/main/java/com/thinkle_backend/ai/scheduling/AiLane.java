@@ -0,0 +1,18 @@
+package com.thinkle_backend.ai.scheduling;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+
+// Declared in priority order, the word of the day must never starve behind a storm of replies
+public enum AiLane {
+    WORD,
+    HINT,
+    REPLY;
+
+    public static AiLane of(AiFeature feature) {
+        return switch (feature) {
+            case WORD -> WORD;
+            case HINT, HINT_BATCH -> HINT;
+            case REPLY, REPLY_BATCH -> REPLY;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.thinkle_backend.ai.scheduling;
+
+import reactor.util.context.Context;
+
+import java.util.Map;
+
+// Reactor Context keys callers attach to AI calls: the user id for per-user quotas, a response schema for Gemini
+public final class AiRequestContext {
+
+    public static final String USER_ID_KEY = "thinkle.ai.userId";
+    public static final String RESPONSE_SCHEMA_KEY = "thinkle.ai.responseSchema";
+
+    private AiRequestContext() {
+    }
+
+    public static Context forUser(Long userId) {
+        return userId == null ? Context.empty() : Context.of(USER_ID_KEY, userId);
+    }
+
+    public static Context withResponseSchema(Map<String, Object> responseSchema) {
+        return Context.of(RESPONSE_SCHEMA_KEY, responseSchema);
+    }
+}
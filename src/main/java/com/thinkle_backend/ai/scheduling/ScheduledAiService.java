@@ -0,0 +1,218 @@
+package com.thinkle_backend.ai.scheduling;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiRequestShedException;
+import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits AI calls under a global token bucket, highest-priority lane first (word, then hints, then
+ * replies). Waiting calls sit in one bounded queue; when it is full, the newest call of the lowest
+ * lane below the newcomer is shed to make room, and calls that waited past their lane's limit are
+ * shed instead of sent. Calls carrying a user id in the Reactor Context also spend that user's quota.
+ */
+public class ScheduledAiService implements AiService, AutoCloseable {
+
+    private final AiService delegate;
+    private final MeterRegistry meterRegistry;
+    private final TokenBucket globalBucket;
+    private final UserQuota userQuota;
+    private final int maxQueued;
+    private final Map<AiLane, Duration> maxWait;
+    private final Map<AiLane, ArrayDeque<Ticket>> queues = new EnumMap<>(AiLane.class);
+    private final Map<AiLane, Timer> waitTimers = new EnumMap<>(AiLane.class);
+    private final Scheduler drainScheduler = Schedulers.newSingle("ai-scheduler");
+    private int queued;
+    private boolean drainScheduled;
+
+    public ScheduledAiService(AiService delegate,
+                              MeterRegistry meterRegistry,
+                              double ratePerSecond,
+                              double burst,
+                              UserQuota userQuota,
+                              int maxQueued,
+                              Map<AiLane, Duration> maxWait) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.globalBucket = new TokenBucket(burst, ratePerSecond);
+        this.userQuota = userQuota;
+        this.maxQueued = maxQueued;
+        this.maxWait = maxWait;
+
+        for (AiLane lane : AiLane.values()) {
+            ArrayDeque<Ticket> queue = new ArrayDeque<>();
+            queues.put(lane, queue);
+            Gauge.builder("thinkle.ai.scheduler.queue.depth", this, scheduler -> scheduler.depth(lane))
+                    .tag("lane", lane.name())
+                    .register(meterRegistry);
+            waitTimers.put(lane, Timer.builder("thinkle.ai.scheduler.wait")
+                    .tag("lane", lane.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
+
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        return Mono.deferContextual(context -> admit(AiLane.of(feature), context))
+                .then(Mono.defer(() -> delegate.getAnswerAsync(feature, question)));
+    }
+
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        return Mono.deferContextual(context -> admit(AiLane.of(feature), context))
+                .thenMany(Flux.defer(() -> delegate.streamAnswer(feature, question)));
+    }
+
+    @Override
+    public void close() {
+        drainScheduler.dispose();
+    }
+
+    // Completes empty once the call may go out
+    private Mono<Void> admit(AiLane lane, ContextView context) {
+        if (!userQuota.tryTake(context)) {
+            return shed(lane, "user-quota");
+        }
+
+        Ticket ticket = new Ticket(lane, System.nanoTime(), Sinks.empty());
+        Ticket evicted = null;
+        synchronized (this) {
+            if (queued >= maxQueued) {
+                evicted = evictBelow(lane);
+                if (evicted == null) {
+                    return shed(lane, "queue-full");
+                }
+            }
+            queues.get(lane).addLast(ticket);
+            queued++;
+        }
+
+        if (evicted != null) {
+            rejectTicket(evicted, "evicted");
+        }
+        drain();
+
+        return ticket.permit().asMono().doOnCancel(() -> {
+            synchronized (this) {
+                if (queues.get(lane).remove(ticket)) {
+                    queued--;
+                }
+            }
+        });
+    }
+
+    private void drain() {
+        List<Ticket> admitted = new ArrayList<>();
+        List<Ticket> expired = new ArrayList<>();
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            while (queued > 0) {
+                ArrayDeque<Ticket> queue = highestNonEmptyQueue();
+                Ticket next = queue.peekFirst();
+
+                if (now - next.enqueuedAt() > maxWait.get(next.lane()).toNanos()) {
+                    queue.pollFirst();
+                    queued--;
+                    expired.add(next);
+                    continue;
+                }
+                if (!globalBucket.tryTake()) {
+                    scheduleDrain(globalBucket.nanosUntilNextToken());
+                    break;
+                }
+                queue.pollFirst();
+                queued--;
+                admitted.add(next);
+            }
+        }
+
+        // Signals go out after the lock is released, subscribers may come straight back with a new call
+        for (Ticket ticket : expired) {
+            rejectTicket(ticket, "expired");
+        }
+        for (Ticket ticket : admitted) {
+            waitTimers.get(ticket.lane()).record(System.nanoTime() - ticket.enqueuedAt(), TimeUnit.NANOSECONDS);
+            ticket.permit().tryEmitEmpty();
+        }
+    }
+
+    // At most one timed drain is pending, it runs once the bucket has a token again
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        drainScheduler.schedule(() -> {
+            synchronized (this) {
+                drainScheduled = false;
+            }
+            drain();
+        }, Math.max(1, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    // Newest call of the lowest lane that ranks below the incoming one
+    private Ticket evictBelow(AiLane incoming) {
+        AiLane[] lanes = AiLane.values();
+        for (int i = lanes.length - 1; i > incoming.ordinal(); i--) {
+            Ticket victim = queues.get(lanes[i]).pollLast();
+            if (victim != null) {
+                queued--;
+                return victim;
+            }
+        }
+        return null;
+    }
+
+    private ArrayDeque<Ticket> highestNonEmptyQueue() {
+        for (AiLane lane : AiLane.values()) {
+            ArrayDeque<Ticket> queue = queues.get(lane);
+            if (!queue.isEmpty()) {
+                return queue;
+            }
+        }
+        throw new IllegalStateException("No queued AI call although " + queued + " are counted");
+    }
+
+    private void rejectTicket(Ticket ticket, String reason) {
+        countShed(ticket.lane(), reason);
+        ticket.permit().tryEmitError(new AiRequestShedException("AI call shed from the " + ticket.lane() + " lane: " + reason));
+    }
+
+    private Mono<Void> shed(AiLane lane, String reason) {
+        countShed(lane, reason);
+        return Mono.error(new AiRequestShedException("AI call shed from the " + lane + " lane: " + reason));
+    }
+
+    private void countShed(AiLane lane, String reason) {
+        meterRegistry.counter("thinkle.ai.scheduler.shed", "lane", lane.name(), "reason", reason).increment();
+    }
+
+    private synchronized int depth(AiLane lane) {
+        return queues.get(lane).size();
+    }
+
+    private record Ticket(AiLane lane, long enqueuedAt, Sinks.Empty<Void> permit) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.thinkle_backend.ai.scheduling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+// Per-user token buckets, spent by calls carrying a user id in the Reactor Context
+public class UserQuota {
+
+    private final Cache<Long, TokenBucket> buckets = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    private final double burst;
+    private final double ratePerSecond;
+
+    public UserQuota(double ratePerMinute, double burst) {
+        this.ratePerSecond = ratePerMinute / 60.0;
+        this.burst = burst;
+    }
+
+    // Calls without a user id are not limited here
+    public boolean tryTake(ContextView context) {
+        Long userId = context.getOrDefault(AiRequestContext.USER_ID_KEY, null);
+        return userId == null || buckets.get(userId, id -> new TokenBucket(burst, ratePerSecond)).tryTake();
+    }
+}
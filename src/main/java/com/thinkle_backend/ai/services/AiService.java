@@ -1,5 +1,16 @@
 package com.thinkle_backend.ai.services;
 
+import com.thinkle_backend.ai.enums.AiFeature;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Implementations return the extracted answer text, not the raw provider response
 public interface AiService {
-    String getAnswer(String question);
+    String getAnswer(AiFeature feature, String question);
+
+    // Non-blocking variant, callers should compose on this instead of blocking a request thread
+    Mono<String> getAnswerAsync(AiFeature feature, String question);
+
+    // Emits the answer as text chunks in arrival order, concatenating them gives the full answer
+    Flux<String> streamAnswer(AiFeature feature, String question);
 }
@@ -1,54 +1,179 @@
 package com.thinkle_backend.ai.services.implementations;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.thinkle_backend.ai.configs.GeminiGenerationSettings;
+import com.thinkle_backend.ai.dtos.GeminiGenerationConfig;
+import com.thinkle_backend.ai.dtos.GeminiRequest;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.enums.AiParserMode;
+import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
+import com.thinkle_backend.ai.messageParser.AiMessageParser;
+import com.thinkle_backend.ai.messageParser.AiParsedResponse;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
 import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
 @Service
 public class GeminiAiServiceImpl implements AiService {
 
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_CHUNK_TYPE =
+            new ParameterizedTypeReference<>() { };
+
+    private static final String API_KEY_HEADER = "X-goog-api-key";
+
+    // Same cap WebClient applies when it buffers a body into a String
+    private static final int MAX_RESPONSE_BYTES = 256 * 1024;
 
     @Value("${gemini.api.url}")
     private String geminiApiUrl;
 
+    // Defaults to the streamGenerateContent variant of gemini.api.url
+    @Value("${gemini.api.stream-url:}")
+    private String geminiStreamApiUrl;
+
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    @Value("${thinkle.ai.parser.mode:STREAMING}")
+    private AiParserMode parserMode;
+
     private final WebClient webClient;
+    private final AiMessageParser aiMessageParser;
+    private final MeterRegistry meterRegistry;
+    private final GeminiGenerationSettings generationSettings;
+    private final ObjectWriter requestWriter;
+
+    public GeminiAiServiceImpl(@Qualifier("geminiWebClient") WebClient webClient,
+                               AiMessageParser aiMessageParser,
+                               MeterRegistry meterRegistry,
+                               GeminiGenerationSettings generationSettings,
+                               ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.aiMessageParser = aiMessageParser;
+        this.meterRegistry = meterRegistry;
+        this.generationSettings = generationSettings;
+        // Resolved once, so each call skips the codec and serializer lookup
+        this.requestWriter = objectMapper.writerFor(GeminiRequest.class);
+    }
+
+    // Same client and generation settings against another model or endpoint, e.g. an extra routing provider
+    private GeminiAiServiceImpl(GeminiAiServiceImpl source, String apiUrl, String streamApiUrl, String apiKey) {
+        this.webClient = source.webClient;
+        this.aiMessageParser = source.aiMessageParser;
+        this.meterRegistry = source.meterRegistry;
+        this.generationSettings = source.generationSettings;
+        this.requestWriter = source.requestWriter;
+        this.parserMode = source.parserMode;
+        this.geminiApiUrl = apiUrl;
+        this.geminiStreamApiUrl = streamApiUrl;
+        this.geminiApiKey = apiKey == null || apiKey.isBlank() ? source.geminiApiKey : apiKey;
+    }
+
+    public GeminiAiServiceImpl forEndpoint(String apiUrl, String streamApiUrl, String apiKey) {
+        return new GeminiAiServiceImpl(this, apiUrl, streamApiUrl, apiKey);
+    }
 
-    public GeminiAiServiceImpl(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
-    }
-
-    public String getAnswer(String question) {
-        // Construct request payload
-        Map<String, Object> requestPayload = Map.of(
-                "contents", new Object[] {
-                        Map.of(
-                                "parts", new Object[] {
-                                        Map.of(
-                                                "text", question
-                                        )
-                                }
-                        )
-                }
-        );
-
-        Map<String, String> headerMap = Map.of(
-                "Content-Type", "application/json",
-                "X-goog-api-key", this.geminiApiKey
-        );
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
 
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        // A caller expecting structured output passes its response schema through the Reactor Context
+        return Mono.deferContextual(context -> getAnswerAsync(feature, question,
+                context.getOrDefault(AiRequestContext.RESPONSE_SCHEMA_KEY, null)));
+    }
+
+    private Mono<String> getAnswerAsync(AiFeature feature, String question, Map<String, Object> responseSchema) {
         // Make Api Call
-        return this.webClient.post()
+        WebClient.ResponseSpec response = this.webClient.post()
                 .uri(this.geminiApiUrl)
-                .headers(httpHeaders -> headerMap.forEach(httpHeaders::add))
-                .bodyValue(requestPayload)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(API_KEY_HEADER, this.geminiApiKey)
+                .bodyValue(buildRequestBody(feature, question, responseSchema))
+                .retrieve();
+
+        if (this.parserMode == AiParserMode.TREE) {
+            return response.bodyToMono(String.class)
+                    .switchIfEmpty(Mono.error(new AiResponseNotGeneratedException("Empty response from Gemini!")))
+                    .map(this.aiMessageParser::extractText);
+        }
+
+        // Parses the received buffers in place, the body is never copied into a String
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), MAX_RESPONSE_BYTES)
+                .switchIfEmpty(Mono.error(new AiResponseNotGeneratedException("Empty response from Gemini!")))
+                .map(this::parseBody)
+                .doOnNext(parsed -> recordTokenUsage(feature, parsed))
+                .map(AiParsedResponse::text);
+    }
+
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        // Each SSE event is a partial response carrying the next slice of text, the last one may carry none
+        return this.webClient.post()
+                .uri(streamApiUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(API_KEY_HEADER, this.geminiApiKey)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(buildRequestBody(feature, question, null))
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
+                .bodyToFlux(SSE_CHUNK_TYPE)
+                .mapNotNull(ServerSentEvent::data)
+                .map(this.aiMessageParser::extractChunkText)
+                .filter(chunk -> !chunk.isEmpty())
+                .switchIfEmpty(Mono.error(new AiResponseNotGeneratedException("Empty response from Gemini!")));
+    }
+
+    private AiParsedResponse parseBody(DataBuffer body) {
+        try {
+            return this.aiMessageParser.parse(body.asInputStream());
+        } finally {
+            DataBufferUtils.release(body);
+        }
+    }
+
+    private void recordTokenUsage(AiFeature feature, AiParsedResponse parsed) {
+        this.meterRegistry.counter("thinkle.ai.tokens", "feature", feature.name(), "type", "prompt")
+                .increment(parsed.promptTokenCount());
+        this.meterRegistry.counter("thinkle.ai.tokens", "feature", feature.name(), "type", "candidates")
+                .increment(parsed.candidatesTokenCount());
+        this.meterRegistry.counter("thinkle.ai.tokens", "feature", feature.name(), "type", "total")
+                .increment(parsed.totalTokenCount());
+    }
+
+    private byte[] buildRequestBody(AiFeature feature, String question, Map<String, Object> responseSchema) {
+        GeminiGenerationConfig generationConfig = this.generationSettings.forFeature(feature);
+        if (responseSchema != null) {
+            generationConfig = generationConfig.withResponseSchema(responseSchema);
+        }
+        try {
+            return this.requestWriter.writeValueAsBytes(GeminiRequest.of(question, generationConfig));
+        } catch (JsonProcessingException e) {
+            throw new AiResponseNotGeneratedException("Could not build the Gemini request!");
+        }
+    }
+
+    private String streamApiUrl() {
+        if (this.geminiStreamApiUrl != null && !this.geminiStreamApiUrl.isBlank()) {
+            return this.geminiStreamApiUrl;
+        }
+        return this.geminiApiUrl.replace(":generateContent", ":streamGenerateContent")
+                + (this.geminiApiUrl.contains("?") ? "&" : "?") + "alt=sse";
     }
 }
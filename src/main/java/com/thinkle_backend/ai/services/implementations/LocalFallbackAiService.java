@@ -0,0 +1,64 @@
+package com.thinkle_backend.ai.services.implementations;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiResponseNotGeneratedException;
+import com.thinkle_backend.ai.services.AiService;
+import com.thinkle_backend.dictionary.WordBank;
+import com.thinkle_backend.dictionary.WordDifficulty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+// Answers without any network call, used when the AI provider is unavailable
+@Service
+public class LocalFallbackAiService implements AiService {
+
+    private static final List<String> CANNED_REPLIES = List.of(
+            "The Oracle is meditating right now, but your guess has been noted. Keep going!",
+            "The Oracle's crystal ball is a little cloudy at the moment. Trust the colours and guess on!",
+            "The Oracle stepped away for a moment. The board still tells the truth, read it well!",
+            "Even the Oracle needs a breather. Your letters speak for themselves this time."
+    );
+    private static final Set<String> CANNED_REPLY_SET = Set.copyOf(CANNED_REPLIES);
+
+    @Value("${thinkle.words.bank.difficulty:ANY}")
+    private WordDifficulty WORD_DIFFICULTY;
+
+    private final WordBank wordBank;
+
+    public LocalFallbackAiService(WordBank wordBank) {
+        this.wordBank = wordBank;
+    }
+
+    public static boolean isCannedReply(String reply) {
+        return CANNED_REPLY_SET.contains(reply);
+    }
+
+    public boolean supports(AiFeature feature) {
+        return feature == AiFeature.WORD || feature == AiFeature.REPLY;
+    }
+
+    @Override
+    public String getAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).block();
+    }
+
+    @Override
+    public Mono<String> getAnswerAsync(AiFeature feature, String question) {
+        return switch (feature) {
+            case WORD -> Mono.fromSupplier(() -> wordBank.draw(WORD_DIFFICULTY));
+            case REPLY -> Mono.just(CANNED_REPLIES.get(Math.floorMod(question.hashCode(), CANNED_REPLIES.size())));
+            default -> Mono.error(new AiResponseNotGeneratedException("No local fallback for " + feature));
+        };
+    }
+
+    // Canned answers are short, so they go out as a single chunk
+    @Override
+    public Flux<String> streamAnswer(AiFeature feature, String question) {
+        return getAnswerAsync(feature, question).flux();
+    }
+}
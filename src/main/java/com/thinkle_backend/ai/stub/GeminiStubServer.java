@@ -0,0 +1,283 @@
+package com.thinkle_backend.ai.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.prompts.PromptTemplate;
+import io.netty.handler.codec.http.HttpMethod;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the Gemini API, started with the ai-stub profile (see application-ai-stub.properties).
+ * It answers generateContent and streamGenerateContent in the same JSON shape as Gemini, after a
+ * latency drawn from the configured distribution, and fails or hangs at the configured rates, so the
+ * AI-bound paths can be load-tested offline. It runs on its own event loops so it does not share
+ * threads with the client under test.
+ */
+@Component
+@Profile("ai-stub")
+public class GeminiStubServer implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiStubServer.class);
+    private static final List<String> RANDOM_WORDS = List.of(
+            "CRANE", "SLATE", "PLUMB", "GHOST", "FROST", "BRICK", "CHANT", "DWELT",
+            "FLAIR", "GRIND", "JOUST", "KNEAD", "LUCID", "MIRTH", "NOBLE", "PROXY"
+    );
+    private static final Pattern HINT_TYPE_PATTERN = Pattern.compile("<hint type=\"([^\"]+)\"\\s*/>");
+
+    @Value("${thinkle.ai.stub.port:8089}")
+    private Integer PORT;
+
+    @Value("${thinkle.ai.stub.latency.distribution:LOG_NORMAL}")
+    private StubLatencyDistribution LATENCY_DISTRIBUTION;
+
+    @Value("${thinkle.ai.stub.latency.median-ms:400}")
+    private Double LATENCY_MEDIAN_MS;
+
+    @Value("${thinkle.ai.stub.latency.p99-ms:2500}")
+    private Double LATENCY_P99_MS;
+
+    @Value("${thinkle.ai.stub.latency.min-ms:50}")
+    private Double LATENCY_MIN_MS;
+
+    @Value("${thinkle.ai.stub.latency.max-ms:10000}")
+    private Double LATENCY_MAX_MS;
+
+    @Value("${thinkle.ai.stub.error-rate:0.0}")
+    private Double ERROR_RATE;
+
+    @Value("${thinkle.ai.stub.error-statuses:500,503,429}")
+    private Integer[] ERROR_STATUSES;
+
+    @Value("${thinkle.ai.stub.timeout-rate:0.0}")
+    private Double TIMEOUT_RATE;
+
+    @Value("${thinkle.ai.stub.timeout-hang-ms:60000}")
+    private Long TIMEOUT_HANG_MS;
+
+    @Value("${thinkle.ai.stub.stream.chunk-words:3}")
+    private Integer STREAM_CHUNK_WORDS;
+
+    @Value("${thinkle.ai.stub.stream.chunk-delay-ms:40}")
+    private Long STREAM_CHUNK_DELAY_MS;
+
+    @Value("${thinkle.ai.stub.default-reply:The stub oracle has weighed your guess.}")
+    private String DEFAULT_REPLY;
+
+    private final ObjectMapper objectMapper;
+    private final List<Map.Entry<Pattern, PromptTemplate>> responseRules = new ArrayList<>();
+    private final LoopResources loopResources = LoopResources.create("ai-stub", 2, true);
+    private DisposableServer server;
+
+    public GeminiStubServer(ObjectMapper objectMapper, Environment environment) {
+        this.objectMapper = objectMapper;
+
+        Binder.get(environment)
+                .bind("thinkle.ai.stub.responses", Bindable.listOf(StubResponseRule.class))
+                .orElse(List.of())
+                .forEach(rule -> responseRules.add(Map.entry(
+                        Pattern.compile(rule.match(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL),
+                        PromptTemplate.compile(rule.text()))));
+    }
+
+    @PostConstruct
+    public void start() {
+        server = HttpServer.create()
+                .port(PORT)
+                .runOn(loopResources)
+                .handle(this::handle)
+                .bindNow();
+        logger.info("AI stub listening on port {} ({} latency, median {} ms, p99 {} ms, error rate {}, timeout rate {})",
+                server.port(), LATENCY_DISTRIBUTION, LATENCY_MEDIAN_MS, LATENCY_P99_MS, ERROR_RATE, TIMEOUT_RATE);
+    }
+
+    @Override
+    public void destroy() {
+        if (server != null) {
+            server.disposeNow();
+        }
+        loopResources.dispose();
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        if (!HttpMethod.POST.equals(request.method())) {
+            return response.status(404).send();
+        }
+        boolean streaming = request.uri().contains(":streamGenerateContent");
+
+        return request.receive().aggregate().asString(StandardCharsets.UTF_8)
+                .defaultIfEmpty("{}")
+                .delayUntil(body -> Mono.delay(sampleLatency()))
+                .flatMap(body -> {
+                    double roll = ThreadLocalRandom.current().nextDouble();
+                    if (roll < TIMEOUT_RATE) {
+                        // Outlasts the client's response timeout, then gives up like an overloaded upstream
+                        return Mono.delay(Duration.ofMillis(TIMEOUT_HANG_MS)).then(response.status(504).send());
+                    }
+                    if (roll < TIMEOUT_RATE + ERROR_RATE) {
+                        int status = ERROR_STATUSES[ThreadLocalRandom.current().nextInt(ERROR_STATUSES.length)];
+                        return sendJson(response.status(status),
+                                Map.of("error", Map.of("code", status, "message", "Stubbed failure", "status", "STUB")));
+                    }
+
+                    String prompt = extractPrompt(body);
+                    String text = respondTo(prompt);
+                    return streaming ? sendStream(response, prompt, text) : sendJson(response, buildResponse(prompt, text, true));
+                });
+    }
+
+    private Mono<Void> sendJson(HttpServerResponse response, Object body) {
+        return response.header("Content-Type", "application/json")
+                .sendString(Mono.fromCallable(() -> objectMapper.writeValueAsString(body)))
+                .then();
+    }
+
+    // Words go out a few at a time, the last event has no text and carries the finish reason and usage
+    private Mono<Void> sendStream(HttpServerResponse response, String prompt, String text) {
+        List<String> words = Arrays.asList(text.split("(?<= )"));
+        int chunkWords = Math.max(1, STREAM_CHUNK_WORDS);
+
+        Flux<String> events = Flux.range(0, (words.size() + chunkWords - 1) / chunkWords)
+                .map(i -> String.join("", words.subList(i * chunkWords, Math.min(words.size(), (i + 1) * chunkWords))))
+                .delayElements(Duration.ofMillis(STREAM_CHUNK_DELAY_MS))
+                .map(chunk -> buildResponse(prompt, chunk, false))
+                .concatWith(Mono.fromSupplier(() -> buildFinalStreamEvent(prompt, text)))
+                .map(this::toSseEvent);
+
+        return response.header("Content-Type", "text/event-stream")
+                .sendString(events)
+                .then();
+    }
+
+    private String respondTo(String prompt) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("prompt", prompt);
+        values.put("randomWord", RANDOM_WORDS.get(ThreadLocalRandom.current().nextInt(RANDOM_WORDS.size())));
+        values.put("defaultReply", DEFAULT_REPLY);
+        values.put("replyBatch", buildReplyBatch(prompt));
+        values.put("hintBatch", buildHintBatch(prompt));
+
+        for (Map.Entry<Pattern, PromptTemplate> rule : responseRules) {
+            if (rule.getKey().matcher(prompt).find()) {
+                return rule.getValue().render(values);
+            }
+        }
+        return DEFAULT_REPLY;
+    }
+
+    // One default reply per <request id="..."> block of a batch prompt, as the JSON array it asks for
+    private String buildReplyBatch(String prompt) {
+        int count = Math.max(1, prompt.split("<request id=", -1).length - 1);
+        try {
+            return objectMapper.writeValueAsString(Collections.nCopies(count, DEFAULT_REPLY));
+        } catch (Exception e) {
+            return "[]";
+        }
+    }
+
+    // One stub hint per <hint type="..."/> line of a multi-hint prompt, as the JSON object it asks for
+    private String buildHintBatch(String prompt) {
+        Map<String, String> hints = new LinkedHashMap<>();
+        Matcher hintType = HINT_TYPE_PATTERN.matcher(prompt);
+        while (hintType.find()) {
+            hints.put(hintType.group(1), "A stubbed " + hintType.group(1) + " hint: think of something you use every day.");
+        }
+        try {
+            return objectMapper.writeValueAsString(hints);
+        } catch (Exception e) {
+            return "{}";
+        }
+    }
+
+    private Map<String, Object> buildResponse(String prompt, String text, boolean finished) {
+        Map<String, Object> candidate = new LinkedHashMap<>();
+        candidate.put("content", Map.of("parts", List.of(Map.of("text", text)), "role", "model"));
+        if (finished) {
+            candidate.put("finishReason", "STOP");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("candidates", List.of(candidate));
+        if (finished) {
+            body.put("usageMetadata", usageMetadata(prompt, text));
+        }
+        body.put("modelVersion", "ai-stub");
+        return body;
+    }
+
+    private Map<String, Object> buildFinalStreamEvent(String prompt, String text) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("candidates", List.of(Map.of("finishReason", "STOP")));
+        body.put("usageMetadata", usageMetadata(prompt, text));
+        body.put("modelVersion", "ai-stub");
+        return body;
+    }
+
+    // Roughly four characters per token, close enough for budgeting
+    private Map<String, Object> usageMetadata(String prompt, String text) {
+        int promptTokens = Math.max(1, prompt.length() / 4);
+        int candidateTokens = Math.max(1, text.length() / 4);
+        return Map.of(
+                "promptTokenCount", promptTokens,
+                "candidatesTokenCount", candidateTokens,
+                "totalTokenCount", promptTokens + candidateTokens
+        );
+    }
+
+    private String toSseEvent(Object body) {
+        try {
+            return "data: " + objectMapper.writeValueAsString(body) + "\r\n\r\n";
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private String extractPrompt(String body) {
+        try {
+            return objectMapper.readTree(body)
+                    .path("contents").path(0)
+                    .path("parts").path(0)
+                    .path("text").asText("");
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private Duration sampleLatency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double millis = switch (LATENCY_DISTRIBUTION) {
+            case FIXED -> LATENCY_MEDIAN_MS;
+            case UNIFORM -> LATENCY_MIN_MS + random.nextDouble() * (LATENCY_MAX_MS - LATENCY_MIN_MS);
+            // 2.326 standard deviations put the p99 where it was configured
+            case LOG_NORMAL -> LATENCY_MEDIAN_MS
+                    * Math.exp(random.nextGaussian() * Math.log(LATENCY_P99_MS / LATENCY_MEDIAN_MS) / 2.326);
+        };
+        return Duration.ofMillis(Math.round(Math.min(LATENCY_MAX_MS, Math.max(LATENCY_MIN_MS, millis))));
+    }
+}
@@ -0,0 +1,10 @@
+package com.thinkle_backend.ai.stub;
+
+public enum StubLatencyDistribution {
+    // Always the median
+    FIXED,
+    // Evenly spread between min and max
+    UNIFORM,
+    // Long-tailed like a real model API, shaped by the median and p99
+    LOG_NORMAL
+}
@@ -0,0 +1,5 @@
+package com.thinkle_backend.ai.stub;
+
+// When the prompt matches the regex, the stub answers with the rendered text template
+public record StubResponseRule(String match, String text) {
+}
@@ -1,12 +1,22 @@
 package com.thinkle_backend.controllers;
 
+import com.thinkle_backend.dtos.requests.GuessReplyRequestDto;
 import com.thinkle_backend.dtos.requests.GuessRequestDto;
 import com.thinkle_backend.dtos.responses.BaseResponse;
+import com.thinkle_backend.dtos.responses.GuessReplyResponseDto;
 import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.dtos.responses.GuessStreamResponseDto;
 import com.thinkle_backend.services.GuessService;
+import com.thinkle_backend.services.ReplyTicketService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/guess")
@@ -14,9 +24,11 @@ import org.springframework.web.bind.annotation.*;
 public class GuessController {
 
     private final GuessService guessService;
+    private final ReplyTicketService replyTicketService;
 
-    public GuessController(GuessService guessService) {
+    public GuessController(GuessService guessService, ReplyTicketService replyTicketService) {
         this.guessService = guessService;
+        this.replyTicketService = replyTicketService;
     }
 
     @PostMapping("/submit")
@@ -26,4 +38,36 @@ public class GuessController {
         GuessResponseDto responseDto = this.guessService.processGuess(guessRequestDto);
         return ResponseEntity.ok(BaseResponse.success(responseDto));
     }
+
+    // Scores the guess before the stream opens, so a refused guess gets the usual error response from
+    // GlobalExceptionHandler. Then sends the scored guess, and the oracle reply chunk by chunk while it is being
+    // generated; the request thread is released once the stream starts, later errors arrive as an "error" event.
+    @PostMapping(value = "/submit/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> processGuessStreaming(
+            @Valid @RequestBody GuessRequestDto guessRequestDto
+    ){
+        GuessStreamResponseDto stream = this.guessService.processGuessStreaming(guessRequestDto);
+        return Flux.concat(
+                        Mono.just(buildEvent("result", BaseResponse.success(stream.getGuessResult()))),
+                        stream.getReplyChunks().map(chunk -> buildEvent("reply", chunk)),
+                        Mono.just(buildEvent("done", ""))
+                )
+                .onErrorResume(e -> Mono.just(buildEvent("error", BaseResponse.failure(e.getMessage()))));
+    }
+
+    @PostMapping("/reply")
+    public CompletableFuture<ResponseEntity<BaseResponse<GuessReplyResponseDto>>> getGuessReply(
+            @Valid @RequestBody GuessReplyRequestDto guessReplyRequestDto
+    ){
+        return this.replyTicketService.getReply(
+                        guessReplyRequestDto.getUserId(),
+                        guessReplyRequestDto.getReplyTicket(),
+                        guessReplyRequestDto.getWaitMs() == null ? 0L : guessReplyRequestDto.getWaitMs()
+                )
+                .thenApply(responseDto -> ResponseEntity.ok(BaseResponse.success(responseDto)));
+    }
+
+    private ServerSentEvent<Object> buildEvent(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
 }
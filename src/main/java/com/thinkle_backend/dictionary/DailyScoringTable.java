@@ -0,0 +1,87 @@
+package com.thinkle_backend.dictionary;
+
+import com.thinkle_backend.utils.GuessScorer;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * Every dictionary word of the solution's length scored against one day's solution, packed as in
+ * {@link GuessScorer} and indexed by dictionary id. Built once per day, read-only afterwards.
+ */
+public final class DailyScoringTable {
+
+    private final LocalDate date;
+    private final String solution;
+    // Upper-case ASCII letters per dictionary id, shared by every table of the same word length
+    private final byte[][] words;
+    private final int[] patterns;
+
+    DailyScoringTable(LocalDate date, String solution, byte[][] words, int[] patterns) {
+        this.date = date;
+        this.solution = solution;
+        this.words = words;
+        this.patterns = patterns;
+    }
+
+    public LocalDate date() {
+        return date;
+    }
+
+    public boolean isFor(String solutionWord) {
+        return solution.equalsIgnoreCase(solutionWord);
+    }
+
+    public int wordLength() {
+        return solution.length();
+    }
+
+    public int size() {
+        return patterns.length;
+    }
+
+    public int patternFor(int dictionaryId) {
+        return patterns[dictionaryId];
+    }
+
+    // Mean of 2 per correct and 1 per present letter over all dictionary guesses, low for hard solutions
+    public double averageScore() {
+        long total = 0;
+        for (int pattern : patterns) {
+            total += 2L * GuessScorer.correctCount(pattern) + GuessScorer.presentCount(pattern);
+        }
+        return patterns.length == 0 ? 0 : (double) total / patterns.length;
+    }
+
+    // Share of dictionary guesses that hit no letter of the solution at all
+    public double blankFraction() {
+        int blank = 0;
+        for (int pattern : patterns) {
+            if (pattern == 0) {
+                blank++;
+            }
+        }
+        return patterns.length == 0 ? 0 : (double) blank / patterns.length;
+    }
+
+    /**
+     * Dictionary ids of the words that would have given the same feedback as the solution did for every
+     * guess so far, i.e. the words a player could still be looking for. A solution from the dictionary is
+     * always among them.
+     */
+    public BitSet remainingCandidates(int[] guessIds) {
+        BitSet candidates = new BitSet(words.length);
+        candidates.set(0, words.length);
+
+        for (int guessId : guessIds) {
+            byte[] guess = words[guessId];
+            int expected = patterns[guessId];
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                if (GuessScorer.score(words[id], guess) != expected) {
+                    candidates.clear(id);
+                }
+            }
+        }
+        return candidates;
+    }
+}
@@ -0,0 +1,101 @@
+package com.thinkle_backend.dictionary;
+
+import com.thinkle_backend.utils.GuessScorer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Builds a {@link DailyScoringTable} per day, in parallel over the dictionary, so a guess is scored with one
+ * array lookup. Tables are built ahead of the rollover by the pre-generation run, or on first use otherwise;
+ * until a table is ready callers score with {@link GuessScorer} directly. Days before yesterday are dropped.
+ */
+@Component
+public class DailyScoringTables {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyScoringTables.class);
+
+    @Value("${thinkle.dictionary.scoring-table.enabled:true}")
+    private Boolean SCORING_TABLE_ENABLED;
+
+    private final DictionaryIndex dictionaryIndex;
+    private final Timer buildTimer;
+    private final ConcurrentMap<LocalDate, CompletableFuture<DailyScoringTable>> tables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, byte[][]> wordsByLength = new ConcurrentHashMap<>();
+
+    public DailyScoringTables(DictionaryIndex dictionaryIndex, MeterRegistry meterRegistry) {
+        this.dictionaryIndex = dictionaryIndex;
+        this.buildTimer = meterRegistry.timer("thinkle.dictionary.scoring-table.build");
+    }
+
+    // Starts building the day's table in the background unless it is already built for this solution
+    public void prepare(LocalDate date, String solutionWord) {
+        if (!SCORING_TABLE_ENABLED || !dictionaryIndex.covers(solutionWord.length())) {
+            return;
+        }
+
+        tables.compute(date, (day, existing) -> {
+            if (existing != null && (!existing.isDone() || isFor(existing, solutionWord))) {
+                return existing;
+            }
+            return CompletableFuture.supplyAsync(() -> build(day, solutionWord));
+        });
+        // Relative to today, preparing days ahead must not drop the table being played right now
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        tables.keySet().removeIf(day -> day.isBefore(yesterday));
+    }
+
+    // The ready table for this day and solution, or null while it is still being built
+    public DailyScoringTable find(LocalDate date, String solutionWord) {
+        CompletableFuture<DailyScoringTable> table = tables.get(date);
+        if (table != null && table.isDone() && isFor(table, solutionWord)) {
+            return table.join();
+        }
+        prepare(date, solutionWord);
+        return null;
+    }
+
+    private DailyScoringTable build(LocalDate date, String solutionWord) {
+        long startedAt = System.nanoTime();
+        byte[] solution = solutionWord.toUpperCase().getBytes(StandardCharsets.US_ASCII);
+        byte[][] words = wordsOfLength(solution.length);
+
+        int[] patterns = new int[words.length];
+        IntStream.range(0, words.length)
+                .parallel()
+                .forEach(id -> patterns[id] = GuessScorer.score(solution, words[id]));
+
+        DailyScoringTable table = new DailyScoringTable(date, solutionWord.toUpperCase(), words, patterns);
+        buildTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        logger.info("Built the scoring table for {} over {} word(s), average score {}, blank guesses {}%",
+                date, table.size(), String.format("%.2f", table.averageScore()),
+                String.format("%.1f", table.blankFraction() * 100));
+        return table;
+    }
+
+    // Decoded once per word length and reused by every day's table
+    private byte[][] wordsOfLength(int wordLength) {
+        return wordsByLength.computeIfAbsent(wordLength, length -> {
+            byte[][] words = new byte[dictionaryIndex.wordCount(length)][];
+            for (int id = 0; id < words.length; id++) {
+                words[id] = dictionaryIndex.wordAt(length, id).getBytes(StandardCharsets.US_ASCII);
+            }
+            return words;
+        });
+    }
+
+    private static boolean isFor(CompletableFuture<DailyScoringTable> table, String solutionWord) {
+        return !table.isCompletedExceptionally() && table.join().isFor(solutionWord);
+    }
+}
@@ -0,0 +1,171 @@
+package com.thinkle_backend.dictionary;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of the dictionary index built by {@link DictionaryIndexBuilder}. The file is memory-mapped,
+ * so the words live in the page cache rather than on the heap; a lookup encodes the word and probes one hash
+ * table slot or a few. Ids are alphabetical ranks within a word length and stay stable for a given index file.
+ * The build always produces the index, so a missing or unreadable one fails startup instead of quietly leaving
+ * guesses with the letters-only check; word lengths the index has no words of still report as not covered.
+ */
+@Component
+public class DictionaryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryIndex.class);
+    private static final String CLASSPATH_INDEX = "dictionary/thinkle-dictionary.idx";
+
+    @Value("${thinkle.dictionary.index-path:}")
+    private String INDEX_PATH;
+
+    private final Section[] sectionsByLength = new Section[DictionaryIndexFormat.MAX_WORD_LENGTH + 1];
+
+    @PostConstruct
+    public void load() {
+        Path indexFile;
+        try {
+            indexFile = locateIndexFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not unpack the dictionary index", e);
+        }
+        if (indexFile == null) {
+            throw new IllegalStateException("No dictionary index on the classpath (" + CLASSPATH_INDEX
+                    + "), build the project with Maven or set thinkle.dictionary.index-path");
+        }
+        try {
+            map(indexFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load the dictionary index " + indexFile, e);
+        }
+    }
+
+    // True when the index has words of this length, only then does contains() have the final say
+    public boolean covers(int wordLength) {
+        return sectionFor(wordLength) != null;
+    }
+
+    public boolean contains(CharSequence word) {
+        return idOf(word) >= 0;
+    }
+
+    // Alphabetical rank of the word among the indexed words of its length, or -1
+    public int idOf(CharSequence word) {
+        Section section = sectionFor(word.length());
+        if (section == null) {
+            return -1;
+        }
+        long code = DictionaryIndexFormat.encode(word);
+        return code == DictionaryIndexFormat.NOT_A_WORD ? -1 : section.find(code);
+    }
+
+    public int wordCount(int wordLength) {
+        Section section = sectionFor(wordLength);
+        return section == null ? 0 : section.codes().capacity();
+    }
+
+    public String wordAt(int wordLength, int id) {
+        Section section = sectionFor(wordLength);
+        if (section == null) {
+            throw new IndexOutOfBoundsException("No indexed words of length " + wordLength);
+        }
+        return DictionaryIndexFormat.decode(section.codes().get(id), wordLength);
+    }
+
+    private Section sectionFor(int wordLength) {
+        return wordLength >= 0 && wordLength < sectionsByLength.length ? sectionsByLength[wordLength] : null;
+    }
+
+    private Path locateIndexFile() throws IOException {
+        if (INDEX_PATH != null && !INDEX_PATH.isBlank()) {
+            return Path.of(INDEX_PATH);
+        }
+
+        ClassPathResource resource = new ClassPathResource(CLASSPATH_INDEX);
+        if (!resource.exists()) {
+            return null;
+        }
+        if (resource.isFile()) {
+            return resource.getFile().toPath();
+        }
+
+        // Inside a jar the index cannot be mapped in place, it is unpacked to a temp file once per start
+        Path unpacked = Files.createTempFile("thinkle-dictionary", ".idx");
+        unpacked.toFile().deleteOnExit();
+        try (InputStream in = resource.getInputStream()) {
+            Files.copy(in, unpacked, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return unpacked;
+    }
+
+    private void map(Path indexFile) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != DictionaryIndexFormat.MAGIC || buffer.getInt(Integer.BYTES) != DictionaryIndexFormat.VERSION) {
+            throw new IllegalStateException("Unsupported dictionary index format in " + indexFile);
+        }
+
+        int sectionCount = buffer.getInt(2 * Integer.BYTES);
+        int totalWords = 0;
+        for (int i = 0; i < sectionCount; i++) {
+            int position = DictionaryIndexFormat.HEADER_BYTES + i * DictionaryIndexFormat.SECTION_BYTES;
+            int wordLength = buffer.getInt(position);
+            int wordCount = buffer.getInt(position + Integer.BYTES);
+            int tableCapacity = buffer.getInt(position + 2 * Integer.BYTES);
+            long codesOffset = buffer.getLong(position + 3 * Integer.BYTES);
+            long tableOffset = buffer.getLong(position + 3 * Integer.BYTES + Long.BYTES);
+
+            if (wordLength < DictionaryIndexFormat.MIN_WORD_LENGTH || wordLength > DictionaryIndexFormat.MAX_WORD_LENGTH) {
+                throw new IllegalStateException("Unsupported word length " + wordLength + " in " + indexFile);
+            }
+            sectionsByLength[wordLength] = new Section(
+                    slice(buffer, codesOffset, wordCount * Long.BYTES).asLongBuffer(),
+                    slice(buffer, tableOffset, tableCapacity * Integer.BYTES).asIntBuffer()
+            );
+            totalWords += wordCount;
+        }
+
+        logger.info("Mapped dictionary index {} with {} word(s) in {} length section(s)", indexFile, totalWords, sectionCount);
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long offset, int length) {
+        return buffer.slice(Math.toIntExact(offset), length);
+    }
+
+    // Absolute gets only, so the buffers are safe to share between request threads
+    private record Section(LongBuffer codes, IntBuffer table) {
+
+        int find(long code) {
+            int mask = table.capacity() - 1;
+            int slot = DictionaryIndexFormat.slotOf(code, table.capacity());
+            int entry;
+            while ((entry = table.get(slot)) != 0) {
+                if (codes.get(entry - 1) == code) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.thinkle_backend.dictionary;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Turns a word file (one word per line, '#' starts a comment) into the dictionary index.
+ * Runs in the process-classes phase of every Maven build:
+ * {@code java DictionaryIndexBuilder <words.txt> <index file>}.
+ */
+public final class DictionaryIndexBuilder {
+
+    private DictionaryIndexBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: DictionaryIndexBuilder <word file> <index file>");
+        }
+
+        Path output = Path.of(args[1]);
+        Map<Integer, long[]> sections = build(Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8));
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(output)) {
+            write(sections, out);
+        }
+
+        int words = sections.values().stream().mapToInt(codes -> codes.length).sum();
+        System.out.println("Wrote " + words + " word(s) in " + sections.size() + " length section(s) to " + output);
+    }
+
+    // Sorted, de-duplicated codes per word length; lines that are not plain words are skipped
+    public static Map<Integer, long[]> build(List<String> lines) {
+        Map<Integer, TreeSet<Long>> codesByLength = new TreeMap<>();
+        for (String line : lines) {
+            String word = line.trim();
+            if (word.isEmpty() || word.startsWith("#")) {
+                continue;
+            }
+            long code = DictionaryIndexFormat.encode(word);
+            if (code != DictionaryIndexFormat.NOT_A_WORD) {
+                codesByLength.computeIfAbsent(word.length(), length -> new TreeSet<>()).add(code);
+            }
+        }
+
+        Map<Integer, long[]> sections = new TreeMap<>();
+        codesByLength.forEach((length, codes) ->
+                sections.put(length, codes.stream().mapToLong(Long::longValue).toArray()));
+        return sections;
+    }
+
+    public static void write(Map<Integer, long[]> sections, OutputStream target) throws IOException {
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(DictionaryIndexFormat.MAGIC);
+        out.writeInt(DictionaryIndexFormat.VERSION);
+        out.writeInt(sections.size());
+
+        List<int[]> tables = new ArrayList<>();
+        long offset = DictionaryIndexFormat.HEADER_BYTES + (long) sections.size() * DictionaryIndexFormat.SECTION_BYTES;
+        for (Map.Entry<Integer, long[]> section : sections.entrySet()) {
+            long[] codes = section.getValue();
+            int[] table = buildTable(codes);
+            tables.add(table);
+
+            long codesOffset = offset;
+            long tableOffset = codesOffset + (long) codes.length * Long.BYTES;
+            offset = tableOffset + (long) table.length * Integer.BYTES;
+
+            out.writeInt(section.getKey());
+            out.writeInt(codes.length);
+            out.writeInt(table.length);
+            out.writeLong(codesOffset);
+            out.writeLong(tableOffset);
+        }
+
+        int sectionIndex = 0;
+        for (long[] codes : sections.values()) {
+            for (long code : codes) {
+                out.writeLong(code);
+            }
+            for (int slot : tables.get(sectionIndex++)) {
+                out.writeInt(slot);
+            }
+        }
+        out.flush();
+    }
+
+    private static int[] buildTable(long[] codes) {
+        int[] table = new int[DictionaryIndexFormat.tableCapacityFor(codes.length)];
+        for (int id = 0; id < codes.length; id++) {
+            int slot = DictionaryIndexFormat.slotOf(codes[id], table.length);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = id + 1;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,68 @@
+package com.thinkle_backend.dictionary;
+
+/**
+ * Layout of the dictionary index file, shared by the build-time writer and the runtime reader.
+ *
+ * <pre>
+ * header   int magic, int version, int sectionCount
+ * section  int wordLength, int wordCount, int tableCapacity, long codesOffset, long tableOffset
+ * codes    long[wordCount]      base-26 codes of the words, ascending, so a word's id is its alphabetical rank
+ * table    int[tableCapacity]   open-addressing hash table of id + 1, 0 marks an empty slot
+ * </pre>
+ * All values are big-endian. A word of up to {@link #MAX_WORD_LENGTH} letters fits one base-26 long.
+ */
+public final class DictionaryIndexFormat {
+
+    public static final int MAGIC = 0x54484B44; // "THKD"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 3 * Integer.BYTES;
+    public static final int SECTION_BYTES = 3 * Integer.BYTES + 2 * Long.BYTES;
+    public static final int MIN_WORD_LENGTH = 2;
+    public static final int MAX_WORD_LENGTH = 12;
+    public static final long NOT_A_WORD = -1L;
+
+    private DictionaryIndexFormat() {
+    }
+
+    // A-Z (either case) only, anything else or a length outside the supported range is not a word
+    public static long encode(CharSequence word) {
+        int length = word.length();
+        if (length < MIN_WORD_LENGTH || length > MAX_WORD_LENGTH) {
+            return NOT_A_WORD;
+        }
+
+        long code = 0;
+        for (int i = 0; i < length; i++) {
+            int letter = (word.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= 26) {
+                return NOT_A_WORD;
+            }
+            code = code * 26 + letter;
+        }
+        return code;
+    }
+
+    public static String decode(long code, int wordLength) {
+        char[] letters = new char[wordLength];
+        for (int i = wordLength - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + code % 26);
+            code /= 26;
+        }
+        return new String(letters);
+    }
+
+    // Murmur3 finaliser, spreads the dense base-26 codes over the table
+    public static int slotOf(long code, int tableCapacity) {
+        code ^= code >>> 33;
+        code *= 0xff51afd7ed558ccdL;
+        code ^= code >>> 33;
+        code *= 0xc4ceb9fe1a85ec53L;
+        code ^= code >>> 33;
+        return (int) code & (tableCapacity - 1);
+    }
+
+    // Power of two with at least half the slots free, so probe chains stay short
+    public static int tableCapacityFor(int wordCount) {
+        return Integer.highestOneBit(Math.max(2, wordCount * 2 - 1)) << 1;
+    }
+}
@@ -0,0 +1,259 @@
+package com.thinkle_backend.dictionary;
+
+import com.thinkle_backend.repositories.WordOfTheDayRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Candidate solutions, loaded once and held as sorted base-26 codes, with how often each one already was a
+ * word of the day. Each difficulty has its own seeded permutation of ids, a cursor into it and a cycle: a word
+ * is free while it has not been used more often than the cycle, and once the cursor has passed every word the
+ * next cycle starts over in the same order. Loading the history sets each cycle to the lowest use count among
+ * its words, so a restarted node lands in the same cycle. Draws never query the database; a word another node
+ * used meanwhile is caught by the (solution_word, bank_use) unique constraint, after which the history is reloaded.
+ */
+@Component
+public class WordBank {
+
+    private static final Logger logger = LoggerFactory.getLogger(WordBank.class);
+
+    @Value("${thinkle.game.default.word-length:5}")
+    private Integer WORD_LENGTH;
+
+    @Value("${thinkle.words.bank.source:classpath:prompts/local_words_list.txt}")
+    private String SOURCE;
+
+    @Value("${thinkle.words.bank.seed:0}")
+    private Long SEED;
+
+    private final DictionaryIndex dictionaryIndex;
+    private final WordOfTheDayRepository wordOfTheDayRepository;
+    private final Map<WordDifficulty, int[]> permutations = new EnumMap<>(WordDifficulty.class);
+    private final Map<WordDifficulty, Integer> cursors = new EnumMap<>(WordDifficulty.class);
+    private final Map<WordDifficulty, Integer> cycles = new EnumMap<>(WordDifficulty.class);
+    private long[] codes = new long[0];
+    private byte[] difficulties = new byte[0];
+    private int[] uses = new int[0];
+    private boolean usedLoaded;
+
+    public WordBank(DictionaryIndex dictionaryIndex, WordOfTheDayRepository wordOfTheDayRepository) {
+        this.dictionaryIndex = dictionaryIndex;
+        this.wordOfTheDayRepository = wordOfTheDayRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        codes = readCodes();
+        uses = new int[codes.length];
+
+        difficulties = rateDifficulties(codes);
+        for (WordDifficulty difficulty : WordDifficulty.values()) {
+            int[] ids = new int[codes.length];
+            int count = 0;
+            for (int id = 0; id < codes.length; id++) {
+                if (difficulty == WordDifficulty.ANY || difficulties[id] == difficulty.ordinal()) {
+                    ids[count++] = id;
+                }
+            }
+            permutations.put(difficulty, shuffle(Arrays.copyOf(ids, count), SEED ^ difficulty.ordinal()));
+            cursors.put(difficulty, 0);
+            cycles.put(difficulty, 0);
+        }
+
+        logger.info("Word bank holds {} word(s) of length {}", codes.length, WORD_LENGTH);
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean contains(String word) {
+        return idOf(word) >= 0;
+    }
+
+    // Used in the current cycle of the word's own difficulty, or of the whole bank when that one has moved further
+    public synchronized boolean isUsed(String word) {
+        loadUsedWords();
+        int id = idOf(word);
+        if (id < 0) {
+            return false;
+        }
+        int cycle = Math.max(cycles.get(WordDifficulty.ANY), cycles.get(WordDifficulty.values()[difficulties[id]]));
+        return uses[id] > cycle;
+    }
+
+    // How often a bank word already was a solution, stored with its next use so two nodes cannot both claim it
+    public synchronized Integer useCount(String word) {
+        loadUsedWords();
+        int id = idOf(word);
+        return id < 0 ? null : uses[id];
+    }
+
+    public synchronized void markUsed(String word) {
+        int id = idOf(word);
+        if (id >= 0 && usedLoaded) {
+            uses[id]++;
+        }
+    }
+
+    // Another node stored a word this one did not know about, the next draw reads the history again
+    public synchronized void reloadUsedWords() {
+        usedLoaded = false;
+    }
+
+    // Next word of the permutation that is free in the current cycle; drawing does not use it up, markUsed() does
+    public synchronized String draw(WordDifficulty difficulty) {
+        loadUsedWords();
+        int[] permutation = permutations.get(difficulty);
+        if (permutation.length == 0) {
+            throw new IllegalStateException("Word bank has no " + difficulty + " words of length " + WORD_LENGTH);
+        }
+
+        int cycle = cycles.get(difficulty);
+        int cursor = cursors.get(difficulty);
+        while (true) {
+            while (cursor < permutation.length && uses[permutation[cursor]] > cycle) {
+                cursor++;
+            }
+            if (cursor < permutation.length) {
+                break;
+            }
+            // Every word has had its day, the cycle starts over in the same order
+            cycle++;
+            cursor = 0;
+            logger.warn("All {} {} word(s) have been used, starting word bank cycle {}", permutation.length, difficulty, cycle + 1);
+        }
+        cycles.put(difficulty, cycle);
+        cursors.put(difficulty, cursor);
+
+        return DictionaryIndexFormat.decode(codes[permutation[cursor]], WORD_LENGTH);
+    }
+
+    private int idOf(String word) {
+        if (word == null || word.trim().length() != WORD_LENGTH) {
+            return -1;
+        }
+        long code = DictionaryIndexFormat.encode(word.trim());
+        return code == DictionaryIndexFormat.NOT_A_WORD ? -1 : Math.max(-1, Arrays.binarySearch(codes, code));
+    }
+
+    // One query for every past solution, the first time a draw needs to know them
+    private void loadUsedWords() {
+        if (usedLoaded) {
+            return;
+        }
+        Arrays.fill(uses, 0);
+        for (String solutionWord : wordOfTheDayRepository.findAllSolutionWords()) {
+            int id = idOf(solutionWord);
+            if (id >= 0) {
+                uses[id]++;
+            }
+        }
+        for (WordDifficulty difficulty : WordDifficulty.values()) {
+            int cycle = Integer.MAX_VALUE;
+            for (int id : permutations.get(difficulty)) {
+                cycle = Math.min(cycle, uses[id]);
+            }
+            cycles.put(difficulty, cycle == Integer.MAX_VALUE ? 0 : cycle);
+            cursors.put(difficulty, 0);
+        }
+        usedLoaded = true;
+    }
+
+    // The configured list (comma or line separated), or else the dictionary's words of the game's length
+    private long[] readCodes() {
+        String content = readSource();
+        if (content != null) {
+            return Arrays.stream(content.split("[,\\s]+"))
+                    .filter(word -> word.length() == WORD_LENGTH)
+                    .mapToLong(DictionaryIndexFormat::encode)
+                    .filter(code -> code != DictionaryIndexFormat.NOT_A_WORD)
+                    .sorted()
+                    .distinct()
+                    .toArray();
+        }
+
+        long[] dictionaryCodes = new long[dictionaryIndex.wordCount(WORD_LENGTH)];
+        for (int id = 0; id < dictionaryCodes.length; id++) {
+            dictionaryCodes[id] = DictionaryIndexFormat.encode(dictionaryIndex.wordAt(WORD_LENGTH, id));
+        }
+        return dictionaryCodes;
+    }
+
+    private String readSource() {
+        Resource resource = new DefaultResourceLoader().getResource(SOURCE);
+        if (!resource.exists()) {
+            logger.info("Word bank source {} not found, using the dictionary index", SOURCE);
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read word bank source " + SOURCE, e);
+        }
+    }
+
+    // Words made of letters common across the bank are easier to close in on, repeated letters are harder
+    private byte[] rateDifficulties(long[] codes) {
+        int[] letterCounts = new int[26];
+        for (long code : codes) {
+            for (long rest = code, i = 0; i < WORD_LENGTH; i++, rest /= 26) {
+                letterCounts[(int) (rest % 26)]++;
+            }
+        }
+
+        double[] scores = new double[codes.length];
+        for (int id = 0; id < codes.length; id++) {
+            int seen = 0;
+            double score = 0;
+            for (long rest = codes[id], i = 0; i < WORD_LENGTH; i++, rest /= 26) {
+                int letter = (int) (rest % 26);
+                score += letterCounts[letter];
+                if ((seen & (1 << letter)) != 0) {
+                    score -= codes.length;
+                }
+                seen |= 1 << letter;
+            }
+            scores[id] = score;
+        }
+
+        // Tertiles of the score: the top third is EASY, the bottom third HARD
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        double hardBelow = sorted.length == 0 ? 0 : sorted[sorted.length / 3];
+        double easyFrom = sorted.length == 0 ? 0 : sorted[(2 * sorted.length) / 3];
+
+        byte[] difficulties = new byte[codes.length];
+        for (int id = 0; id < codes.length; id++) {
+            WordDifficulty difficulty = scores[id] >= easyFrom ? WordDifficulty.EASY
+                    : scores[id] < hardBelow ? WordDifficulty.HARD
+                    : WordDifficulty.MEDIUM;
+            difficulties[id] = (byte) difficulty.ordinal();
+        }
+        return difficulties;
+    }
+
+    private static int[] shuffle(int[] ids, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,11 @@
+package com.thinkle_backend.dictionary;
+
+public enum WordDifficulty {
+    // Common letters, no repeats
+    EASY,
+    MEDIUM,
+    // Rare letters or repeated ones
+    HARD,
+    // No filter, the whole bank
+    ANY
+}
@@ -0,0 +1,26 @@
+package com.thinkle_backend.dtos.requests;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Setter
+@Getter
+public class GuessReplyRequestDto {
+
+    @NotNull(message = "User Id is required")
+    private Long userId;
+
+    @NotBlank(message = "Reply ticket is required")
+    private String replyTicket;
+
+    // How long to hold the request open waiting for the reply, 0 returns the current state right away
+    @PositiveOrZero(message = "Wait time must not be negative")
+    @Max(value = 30000, message = "Wait time must be at most 30000 ms")
+    private Long waitMs = 0L;
+}
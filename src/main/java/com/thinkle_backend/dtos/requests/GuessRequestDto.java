@@ -1,5 +1,6 @@
 package com.thinkle_backend.dtos.requests;
 
+import com.thinkle_backend.models.enums.ReplyMode;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -16,4 +17,7 @@ public class GuessRequestDto {
 
     @NotBlank(message = "Guessed word is required")
     private String guessedWord;
+
+    // Optional, overrides thinkle.ai.reply.mode for this guess
+    private ReplyMode replyMode;
 }
@@ -0,0 +1,15 @@
+package com.thinkle_backend.dtos.responses;
+
+import com.thinkle_backend.models.enums.ReplyStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Setter
+@Getter
+public class GuessReplyResponseDto {
+    private String replyTicket;
+    private ReplyStatus status;
+    private String aiResponse;
+}
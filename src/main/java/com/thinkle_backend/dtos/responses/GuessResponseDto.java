@@ -15,6 +15,8 @@ public class GuessResponseDto {
     private List<Integer> correctPositions;
     private List<Integer> missedPositions;
     private String aiResponse;
+    // Set when the oracle reply missed the deadline, use it to fetch the reply later
+    private String replyTicket;
     private Integer remainingLives;
     private GameStatus gameStatus;
 }
@@ -0,0 +1,13 @@
+package com.thinkle_backend.dtos.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+
+// Scored guess plus the oracle reply as a stream of text chunks, nothing is generated until it is subscribed
+@AllArgsConstructor
+@Getter
+public class GuessStreamResponseDto {
+    private GuessResponseDto guessResult;
+    private Flux<String> replyChunks;
+}
@@ -8,6 +8,7 @@ import com.thinkle_backend.security.exceptions.InvalidTokenException;
 import com.thinkle_backend.security.exceptions.ResourceNotFoundException;
 import com.thinkle_backend.security.exceptions.UnauthorizedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -20,121 +21,127 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HintTypeAlreadyExistsException.class)
     public ResponseEntity<BaseResponse<Void>> handleHintTypeAlreadyExists(HintTypeAlreadyExistsException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(HintTypeDoesNotExistsException.class)
     public ResponseEntity<BaseResponse<Void>> handleHintTypeDoesNotExists(HintTypeDoesNotExistsException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(HintTypeAlreadyDeletedException.class)
     public ResponseEntity<BaseResponse<Void>> handleHintTypeAlreadyDeleted(HintTypeAlreadyDeletedException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(HintTypeAlreadyActiveException.class)
     public ResponseEntity<BaseResponse<Void>> handleHintTypeAlreadyActive(HintTypeAlreadyActiveException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(AiMessageParserException.class)
     public ResponseEntity<BaseResponse<Void>> handleAiMessageParser(AiMessageParserException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(WordAlreadyExistsException.class)
     public ResponseEntity<BaseResponse<Void>> handleWordAlreadyExists(WordAlreadyExistsException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(InvalidWordException.class)
     public ResponseEntity<BaseResponse<Void>> handleInvalidWord(InvalidWordException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(WordDoesNotExistsException.class)
     public ResponseEntity<BaseResponse<Void>> handleWordDoesNotExist(WordDoesNotExistsException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(HintAlreadyExists.class)
     public ResponseEntity<BaseResponse<Void>> handleHintAlreadyExists(HintAlreadyExists ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(GameSessionNotFoundException.class)
     public ResponseEntity<BaseResponse<Void>> handleGameSessionNotFound(GameSessionNotFoundException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(CanNotUseHintException.class)
     public ResponseEntity<BaseResponse<Void>> handleCanNotUseHint(CanNotUseHintException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(HintDoesNotExistsException.class)
     public ResponseEntity<BaseResponse<Void>> handleHintDoesNotExist(HintDoesNotExistsException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<BaseResponse<Void>> handleUserNotFound(UserNotFoundException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(CanNotSubmitGuessException.class)
     public ResponseEntity<BaseResponse<Void>> handleCanNotSubmitGuess(CanNotSubmitGuessException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
+    }
+
+    @ExceptionHandler(ReplyTicketNotFoundException.class)
+    public ResponseEntity<BaseResponse<Void>> handleReplyTicketNotFound(ReplyTicketNotFoundException ex) {
+        BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(AiResponseNotGeneratedException.class)
     public ResponseEntity<BaseResponse<Void>> handleAiResponseNotGenerated(AiResponseNotGeneratedException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(InvalidTokenException.class)
     public ResponseEntity<BaseResponse<Void>> handleInvalidToken(InvalidTokenException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return failureResponse(response, HttpStatus.OK);
     }
 
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<BaseResponse<Void>> handleDuplicateResource(DuplicateResourceException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        return failureResponse(response, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<BaseResponse<Void>> handleResourceNotFound(ResourceNotFoundException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        return failureResponse(response, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<BaseResponse<Void>> handleUnAuthorization(UnauthorizedException ex) {
         BaseResponse<Void> response = BaseResponse.failure(ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        return failureResponse(response, HttpStatus.UNAUTHORIZED);
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<BaseResponse<Void>> handleGenericException(Exception ex) {
         BaseResponse<Void> response = BaseResponse.failure("Something went wrong: " + ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        return failureResponse(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -144,7 +151,11 @@ public class GlobalExceptionHandler {
             errorMessage.append(fieldError.getField()).append(" ").append(fieldError.getDefaultMessage()).append("; ");
         }
         BaseResponse<Void> response = BaseResponse.failure(errorMessage.toString().trim());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return failureResponse(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Error bodies are always JSON, also for a request that asked for an event stream and was refused up front
+    private static ResponseEntity<BaseResponse<Void>> failureResponse(BaseResponse<Void> response, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(response);
+    }
 }
@@ -0,0 +1,7 @@
+package com.thinkle_backend.exceptions;
+
+public class ReplyTicketNotFoundException extends RuntimeException {
+    public ReplyTicketNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.thinkle_backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "cached_reply")
+public class CachedReply extends BaseModel {
+
+    @Column(name = "cache_key", unique = true, nullable = false)
+    private String cacheKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String reply;
+}
@@ -1,6 +1,7 @@
 package com.thinkle_backend.models;
 
 import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.models.enums.SessionStorageMode;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,9 +14,12 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@Table(name = "game_session", indexes = {
+        @Index(name = "idx_game_session_user_date", columnList = "user_id, game_date")
+})
 public class GameSession extends BaseModel {
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private ThinkleUsers user;
 
@@ -27,13 +31,36 @@ public class GameSession extends BaseModel {
     @Enumerated(EnumType.STRING)
     private GameStatus status;
 
+    // Kept in step with the guesses and hints, so the guess path never has to count rows
+    @Column(name = "guess_count", nullable = false)
+    private Integer guessCount = 0;
+
+    @Column(name = "hints_used", nullable = false)
+    private Integer hintsUsed = 0;
+
     @OneToMany(mappedBy = "gameSession", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Guess> guesses;
 
     @OneToMany(mappedBy = "gameSession", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Hint> hints;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "word_of_the_day_id", nullable = false)
     private WordOfTheDay wordOfTheDay;
+
+    // Null for rows from before storage modes, those are stored as TABLES
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_mode")
+    private SessionStorageMode storageMode;
+
+    // COMPACT sessions only, see SessionLogCodec
+    @Column(name = "guess_log", columnDefinition = "bytea")
+    private byte[] guessLog;
+
+    @Column(name = "hint_log", columnDefinition = "bytea")
+    private byte[] hintLog;
+
+    public boolean isCompact() {
+        return storageMode == SessionStorageMode.COMPACT;
+    }
 }
@@ -0,0 +1,28 @@
+package com.thinkle_backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Cluster-wide lock for one-off jobs, the node named in owner holds it until expires_at
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "generation_lease")
+public class GenerationLease extends BaseModel {
+
+    @Column(name = "lease_key", unique = true, nullable = false)
+    private String leaseKey;
+
+    @Column(name = "owner", nullable = false)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,38 @@
+package com.thinkle_backend.models;
+
+import com.thinkle_backend.models.enums.ReplyStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// A late oracle reply, readable from every node until expires_at
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "reply_ticket")
+public class ReplyTicket extends BaseModel {
+
+    @Column(name = "ticket", unique = true, nullable = false)
+    private String ticket;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReplyStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String reply;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
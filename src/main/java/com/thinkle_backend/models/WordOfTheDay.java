@@ -3,6 +3,8 @@ package com.thinkle_backend.models;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,10 +15,15 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"solution_word", "bank_use"}))
 public class WordOfTheDay extends BaseModel {
 
     private String solutionWord;
 
+    // For word bank words, how often the word had been a solution before; left empty for other words
+    @Column(name = "bank_use")
+    private Integer bankUse;
+
     @Column(nullable = false, unique = true)
     private LocalDate generatedAt;
 
@@ -0,0 +1,10 @@
+package com.thinkle_backend.models.enums;
+
+public enum ReplyMode {
+    // Oracle reply from the AI provider
+    AI,
+    // Reply from the local phrase engine, no network call
+    LOCAL,
+    // AI reply, replaced by a local one when the AI fails, falls back or misses the reply deadline
+    AUTO
+}
@@ -0,0 +1,7 @@
+package com.thinkle_backend.models.enums;
+
+public enum ReplyStatus {
+    PENDING,
+    READY,
+    FAILED
+}
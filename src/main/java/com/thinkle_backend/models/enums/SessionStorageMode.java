@@ -0,0 +1,8 @@
+package com.thinkle_backend.models.enums;
+
+public enum SessionStorageMode {
+    // A Guess row per guess with its index collections, a Hint row per hint used
+    TABLES,
+    // Guesses and hints used appended to the guess_log and hint_log columns of the session row
+    COMPACT
+}
@@ -0,0 +1,12 @@
+package com.thinkle_backend.repositories;
+
+import com.thinkle_backend.models.CachedReply;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CachedReplyRepository extends JpaRepository<CachedReply, Long> {
+    Optional<CachedReply> findByCacheKey(String cacheKey);
+}
@@ -1,13 +1,109 @@
 package com.thinkle_backend.repositories;
 
 import com.thinkle_backend.models.GameSession;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameSessionRepository extends JpaRepository<GameSession, Long> {
     Optional<GameSession> findByUserIdAndGameDate(Long userId, LocalDate gameDate);
+
+    /**
+     * Applies a guess to the user's COMPACT session of the day in one statement: appends the entry, counts the
+     * guess, takes a life unless solved and decides the status, all from the row's current values. Returns
+     * nothing when there is no such session in progress, callers then read the session to find out why.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE game_session
+            SET guess_log = COALESCE(guess_log, CAST('' AS bytea)) || :entry,
+                guess_count = guess_count + 1,
+                remaining_lives = CASE WHEN :solved THEN remaining_lives ELSE remaining_lives - :lifeCost END,
+                status = CASE
+                    WHEN :solved THEN 'WON'
+                    WHEN remaining_lives - :lifeCost <= 0 OR guess_count + 1 >= :maxGuesses THEN 'LOST'
+                    ELSE status END,
+                updated_at = now()
+            WHERE user_id = :userId AND game_date = :gameDate
+              AND status = 'IN_PROGRESS' AND storage_mode = 'COMPACT'
+            RETURNING remaining_lives AS remainingLives, status, hints_used AS hintsUsed
+            """, nativeQuery = true)
+    Optional<GuessOutcome> submitCompactGuess(@Param("userId") Long userId,
+                                              @Param("gameDate") LocalDate gameDate,
+                                              @Param("entry") byte[] entry,
+                                              @Param("solved") boolean solved,
+                                              @Param("lifeCost") int lifeCost,
+                                              @Param("maxGuesses") int maxGuesses);
+
+    /**
+     * Applies a hint to a COMPACT session relative to the row's current values, so a guess committed in between
+     * keeps its lost life and two concurrent hints cannot both pass the limits. Returns nothing when the hint is
+     * refused: the game is over, lives are short, the day's hints are used up or the log already holds a hint of
+     * this type. The type check walks the log's entries by their length prefixes, see SessionLogCodec.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE game_session
+            SET hint_log = COALESCE(hint_log, CAST('' AS bytea)) || :entry,
+                hints_used = hints_used + 1,
+                remaining_lives = remaining_lives - :lifeCost,
+                updated_at = now()
+            WHERE id = :id
+              AND status = 'IN_PROGRESS'
+              AND remaining_lives >= :requiredLives
+              AND hints_used < :maxHints
+              AND NOT EXISTS (
+                  WITH RECURSIVE entry(pos, type_len) AS (
+                      SELECT 0, get_byte(hint_log, 17) * 256 + get_byte(hint_log, 18)
+                      WHERE length(hint_log) > 0
+                      UNION ALL
+                      SELECT step.next_pos, get_byte(hint_log, step.next_pos + 17) * 256 + get_byte(hint_log, step.next_pos + 18)
+                      FROM entry
+                      CROSS JOIN LATERAL (SELECT entry.pos + 21 + entry.type_len
+                              + get_byte(hint_log, entry.pos + 19 + entry.type_len) * 256
+                              + get_byte(hint_log, entry.pos + 20 + entry.type_len) AS next_pos) step
+                      WHERE step.next_pos < length(hint_log)
+                  )
+                  SELECT 1 FROM entry
+                  WHERE substring(hint_log FROM pos + 20 FOR type_len) = convert_to(:hintType, 'UTF8')
+              )
+            RETURNING remaining_lives AS remainingLives, hints_used AS hintsUsed
+            """, nativeQuery = true)
+    Optional<HintOutcome> appendHint(@Param("id") Long id,
+                                     @Param("entry") byte[] entry,
+                                     @Param("hintType") String hintType,
+                                     @Param("lifeCost") int lifeCost,
+                                     @Param("requiredLives") int requiredLives,
+                                     @Param("maxHints") int maxHints);
+
+    // Keyset page of the sessions still stored in the Guess and Hint tables
+    @Query("""
+            SELECT s.id FROM GameSession s
+            WHERE s.id > :afterId
+              AND (s.storageMode IS NULL OR s.storageMode = com.thinkle_backend.models.enums.SessionStorageMode.TABLES)
+            ORDER BY s.id
+            """)
+    List<Long> findIdsStoredInTablesAfter(@Param("afterId") Long afterId, Pageable page);
+
+    interface GuessOutcome {
+        Integer getRemainingLives();
+
+        String getStatus();
+
+        Integer getHintsUsed();
+    }
+
+    interface HintOutcome {
+        Integer getRemainingLives();
+
+        Integer getHintsUsed();
+    }
 }
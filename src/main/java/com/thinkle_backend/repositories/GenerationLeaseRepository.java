@@ -0,0 +1,30 @@
+package com.thinkle_backend.repositories;
+
+import com.thinkle_backend.models.GenerationLease;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GenerationLeaseRepository extends JpaRepository<GenerationLease, Long> {
+
+    // Takes the lease when it is free, expired or already ours; expiry uses the database clock so node clocks may drift
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO generation_lease (lease_key, owner, expires_at, created_at, is_deleted)
+            VALUES (:leaseKey, :owner, now() + (:ttlMs * interval '1 millisecond'), now(), false)
+            ON CONFLICT (lease_key) DO UPDATE
+                SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at, updated_at = now()
+                WHERE generation_lease.expires_at < now() OR generation_lease.owner = EXCLUDED.owner
+            """, nativeQuery = true)
+    int tryAcquire(@Param("leaseKey") String leaseKey, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GenerationLease l WHERE l.leaseKey = :leaseKey AND l.owner = :owner")
+    int release(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+}
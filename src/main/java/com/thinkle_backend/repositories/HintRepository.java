@@ -9,7 +9,7 @@ import java.util.Optional;
 
 @Repository
 public interface HintRepository extends JpaRepository<Hint, Long> {
-    Long countByGameSession_User_IdAndGameSession_GameDate(Long userId, LocalDate gameDate);
+    long countByGameSession_Id(Long gameSessionId);
     boolean existsByGameSession_IdAndWordHint_HintType_Id(Long gameSessionId, Long hintTypeId);
     List<Hint> findByGameSession_User_IdAndGameSession_GameDate(Long userId, LocalDate gameDate);
 
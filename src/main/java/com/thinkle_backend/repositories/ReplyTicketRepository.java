@@ -0,0 +1,34 @@
+package com.thinkle_backend.repositories;
+
+import com.thinkle_backend.models.ReplyTicket;
+import com.thinkle_backend.models.enums.ReplyStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ReplyTicketRepository extends JpaRepository<ReplyTicket, Long> {
+    Optional<ReplyTicket> findByTicket(String ticket);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE ReplyTicket t SET t.status = :status, t.reply = :reply, t.updatedAt = :now
+            WHERE t.ticket = :ticket
+            """)
+    int complete(@Param("ticket") String ticket,
+                 @Param("status") ReplyStatus status,
+                 @Param("reply") String reply,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReplyTicket t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
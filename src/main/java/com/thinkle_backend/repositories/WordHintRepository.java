@@ -5,8 +5,11 @@ import com.thinkle_backend.models.WordHint;
 import com.thinkle_backend.models.WordOfTheDay;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface WordHintRepository extends JpaRepository<WordHint, Long> {
     Optional<WordHint> findByWordOfTheDayAndHintType(WordOfTheDay wordOfTheDay, HintType hintType);
+
+    List<WordHint> findAllByWordOfTheDay(WordOfTheDay wordOfTheDay);
 }
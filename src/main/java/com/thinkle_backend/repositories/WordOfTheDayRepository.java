@@ -2,13 +2,18 @@ package com.thinkle_backend.repositories;
 
 import com.thinkle_backend.models.WordOfTheDay;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WordOfTheDayRepository extends JpaRepository<WordOfTheDay, Long> {
     Optional<WordOfTheDay> findByGeneratedAt(LocalDate date);
     Optional<Boolean> existsBySolutionWordIgnoreCase(String solutionWord);
+
+    @Query("SELECT w.solutionWord FROM WordOfTheDay w")
+    List<String> findAllSolutionWords();
 }
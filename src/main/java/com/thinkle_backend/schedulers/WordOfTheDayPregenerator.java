@@ -0,0 +1,154 @@
+package com.thinkle_backend.schedulers;
+
+import com.thinkle_backend.dictionary.DailyScoringTables;
+import com.thinkle_backend.models.HintType;
+import com.thinkle_backend.models.WordOfTheDay;
+import com.thinkle_backend.services.WordHintService;
+import com.thinkle_backend.services.events.WordOfTheDayMissingEvent;
+import com.thinkle_backend.services.implementations.WordOfTheDayGenerationGuard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the words and hints of the coming days well before they are played, so the daily rollover
+ * only has to look up a row that already exists. Every day is verified after generation and retried
+ * until it is complete; a day that still is not ready is reported as an alert.
+ */
+@Component
+public class WordOfTheDayPregenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(WordOfTheDayPregenerator.class);
+
+    @Value("${thinkle.words.pregeneration.enabled:true}")
+    private Boolean PREGENERATION_ENABLED;
+
+    @Value("${thinkle.words.pregeneration.days-ahead:3}")
+    private Integer DAYS_AHEAD;
+
+    @Value("${thinkle.words.pregeneration.max-attempts:3}")
+    private Integer MAX_ATTEMPTS;
+
+    @Value("${thinkle.words.pregeneration.retry-backoff-ms:10000}")
+    private Long RETRY_BACKOFF_MS;
+
+    private final WordOfTheDayGenerationGuard wordOfTheDayGenerationGuard;
+    private final WordHintService wordHintService;
+    private final DailyScoringTables dailyScoringTables;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger readyDays = new AtomicInteger();
+
+    public WordOfTheDayPregenerator(WordOfTheDayGenerationGuard wordOfTheDayGenerationGuard,
+                                    WordHintService wordHintService,
+                                    DailyScoringTables dailyScoringTables,
+                                    MeterRegistry meterRegistry) {
+        this.wordOfTheDayGenerationGuard = wordOfTheDayGenerationGuard;
+        this.wordHintService = wordHintService;
+        this.dailyScoringTables = dailyScoringTables;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("thinkle.words.pregeneration.ready-days", readyDays, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void pregenerateOnStartup() {
+        pregenerateInBackground();
+    }
+
+    @Scheduled(cron = "${thinkle.words.pregeneration.cron:0 0 */6 * * *}")
+    public void pregenerateOnSchedule() {
+        pregenerate();
+    }
+
+    @EventListener
+    public void onWordOfTheDayMissing(WordOfTheDayMissingEvent event) {
+        alert("missing", event.date(), "No word of the day was ready when a player asked for it");
+        pregenerateInBackground();
+    }
+
+    public void pregenerateInBackground() {
+        Mono.fromRunnable(this::pregenerate)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        ignored -> { },
+                        e -> logger.error("Word pre-generation run failed: {}", e.getMessage(), e)
+                );
+    }
+
+    // Runs are never stacked, a trigger during a run is covered by that run
+    public void pregenerate() {
+        if (!PREGENERATION_ENABLED || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            LocalDate today = LocalDate.now();
+            int ready = 0;
+            boolean contiguous = true;
+            for (int day = 0; day < DAYS_AHEAD; day++) {
+                boolean complete = prepareDay(today.plusDays(day));
+                if (complete && contiguous) {
+                    ready++;
+                }
+                contiguous &= complete;
+            }
+            readyDays.set(ready);
+            logger.info("Word pre-generation finished, {} of {} upcoming day(s) ready", ready, DAYS_AHEAD);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean prepareDay(LocalDate date) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                // Every node runs this schedule, the guard lets exactly one of them generate the day
+                WordOfTheDay word = wordOfTheDayGenerationGuard.generate(date);
+                // Each node keeps its own table in memory, so each one builds it ahead of the rollover
+                dailyScoringTables.prepare(date, word.getSolutionWord());
+
+                List<HintType> missingHintTypes = wordHintService.findHintTypesWithoutHint(word);
+                if (missingHintTypes.isEmpty()) {
+                    return true;
+                }
+                logger.warn("Attempt {} for {} left {} hint type(s) without a hint", attempt, date, missingHintTypes.size());
+            } catch (Exception e) {
+                logger.warn("Attempt {} to prepare the word for {} failed: {}", attempt, date, e.getMessage());
+            }
+
+            if (attempt < MAX_ATTEMPTS) {
+                sleepBeforeRetry(attempt);
+            }
+        }
+
+        alert("incomplete", date, "Word or hints are still missing after " + MAX_ATTEMPTS + " attempt(s)");
+        return false;
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS * (1L << (attempt - 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void alert(String reason, LocalDate date, String message) {
+        meterRegistry.counter("thinkle.words.pregeneration.alerts", "reason", reason).increment();
+        logger.error("ALERT word of the day for {}: {}", date, message);
+    }
+}
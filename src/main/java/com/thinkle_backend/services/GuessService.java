@@ -2,7 +2,10 @@ package com.thinkle_backend.services;
 
 import com.thinkle_backend.dtos.requests.GuessRequestDto;
 import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.dtos.responses.GuessStreamResponseDto;
 
 public interface GuessService {
     GuessResponseDto processGuess(GuessRequestDto guessRequestDto);
+
+    GuessStreamResponseDto processGuessStreaming(GuessRequestDto guessRequestDto);
 }
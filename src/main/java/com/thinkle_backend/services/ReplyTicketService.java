@@ -0,0 +1,10 @@
+package com.thinkle_backend.services;
+
+import com.thinkle_backend.dtos.responses.GuessReplyResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ReplyTicketService {
+    String registerPendingReply(Long userId, CompletableFuture<String> reply);
+    CompletableFuture<GuessReplyResponseDto> getReply(Long userId, String replyTicket, long waitMs);
+}
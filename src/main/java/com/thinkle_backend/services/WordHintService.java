@@ -1,9 +1,13 @@
 package com.thinkle_backend.services;
 
 import com.thinkle_backend.dtos.responses.GetHintResponseDto;
+import com.thinkle_backend.models.HintType;
 import com.thinkle_backend.models.WordOfTheDay;
 
+import java.util.List;
+
 public interface WordHintService {
     void createHintsForWordOfTheDay(WordOfTheDay wordOfTheDay);
+    List<HintType> findHintTypesWithoutHint(WordOfTheDay wordOfTheDay);
     GetHintResponseDto getHintForHintType(String hintType, Long userId);
 }
@@ -2,6 +2,9 @@ package com.thinkle_backend.services;
 
 import com.thinkle_backend.models.WordOfTheDay;
 
+import java.time.LocalDate;
+
 public interface WordOfTheDayService {
-    WordOfTheDay generateWordOfTheDay();
+    WordOfTheDay getWordOfTheDay(LocalDate date);
+    WordOfTheDay generateWordOfTheDay(LocalDate date);
 }
@@ -0,0 +1,7 @@
+package com.thinkle_backend.services.events;
+
+import java.time.LocalDate;
+
+// Published when a player needs a day whose word was not generated ahead of time
+public record WordOfTheDayMissingEvent(LocalDate date) {
+}
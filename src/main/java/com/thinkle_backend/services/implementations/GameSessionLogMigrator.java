@@ -0,0 +1,122 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.models.GameSession;
+import com.thinkle_backend.models.Guess;
+import com.thinkle_backend.models.Hint;
+import com.thinkle_backend.models.enums.SessionStorageMode;
+import com.thinkle_backend.repositories.GameSessionRepository;
+import com.thinkle_backend.utils.GuessScorer;
+import com.thinkle_backend.utils.SessionLogCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Moves sessions stored as TABLES onto the compact guess_log and hint_log columns, one batch per transaction.
+ * The Guess and Hint rows are left in place but are no longer read for a migrated session. Enable it on one
+ * node only: a guess that lands on a session while that session's batch is in flight could be left out.
+ */
+@Component
+public class GameSessionLogMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSessionLogMigrator.class);
+
+    @Value("${thinkle.game.session.migration.enabled:false}")
+    private Boolean MIGRATION_ENABLED;
+
+    @Value("${thinkle.game.session.migration.batch-size:200}")
+    private Integer BATCH_SIZE;
+
+    private final GameSessionRepository gameSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter migratedSessions;
+
+    public GameSessionLogMigrator(GameSessionRepository gameSessionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.gameSessionRepository = gameSessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.migratedSessions = meterRegistry.counter("thinkle.game.session.migrated");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!MIGRATION_ENABLED) {
+            return;
+        }
+        Mono.fromRunnable(this::migrate)
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        ignored -> { },
+                        e -> logger.error("Game session migration failed: {}", e.getMessage(), e)
+                );
+    }
+
+    public void migrate() {
+        long afterId = 0;
+        long migrated = 0;
+        List<Long> ids;
+        while (!(ids = gameSessionRepository.findIdsStoredInTablesAfter(afterId, PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status ->
+                    gameSessionRepository.findAllById(batch).forEach(this::migrateSession));
+
+            migrated += batch.size();
+            migratedSessions.increment(batch.size());
+            afterId = batch.get(batch.size() - 1);
+        }
+        logger.info("Moved {} game session(s) to compact storage", migrated);
+    }
+
+    // Runs inside the batch transaction, the session is saved by dirty checking
+    private void migrateSession(GameSession session) {
+        ByteArrayOutputStream guessLog = new ByteArrayOutputStream();
+        sorted(session.getGuesses(), Guess::getTimestamp).forEach(guess -> guessLog.writeBytes(
+                SessionLogCodec.encodeGuess(
+                        guess.getGuessedWord(),
+                        GuessScorer.pack(guess.getCorrectPositionIndices(), guess.getMissedPositionIndices()),
+                        timeOf(guess.getTimestamp(), guess.getCreatedAt()))));
+
+        ByteArrayOutputStream hintLog = new ByteArrayOutputStream();
+        sorted(session.getHints(), Hint::getUsedAt).forEach(hint -> hintLog.writeBytes(
+                SessionLogCodec.encodeHint(
+                        hint.getWordHint().getId(),
+                        hint.getWordHint().getHintType().getHintType(),
+                        hint.getWordHint().getText(),
+                        timeOf(hint.getUsedAt(), hint.getCreatedAt()))));
+
+        session.setGuessLog(guessLog.size() == 0 ? null : guessLog.toByteArray());
+        session.setHintLog(hintLog.size() == 0 ? null : hintLog.toByteArray());
+        session.setGuessCount(session.getGuesses() == null ? 0 : session.getGuesses().size());
+        session.setHintsUsed(session.getHints() == null ? 0 : session.getHints().size());
+        session.setStorageMode(SessionStorageMode.COMPACT);
+    }
+
+    private static <T> List<T> sorted(List<T> rows, Function<T, LocalDateTime> time) {
+        if (rows == null) {
+            return List.of();
+        }
+        return rows.stream()
+                .sorted(Comparator.comparing(time, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static LocalDateTime timeOf(LocalDateTime at, LocalDateTime fallback) {
+        return at != null ? at : fallback;
+    }
+}
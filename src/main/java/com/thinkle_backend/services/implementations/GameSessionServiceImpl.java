@@ -6,9 +6,12 @@ import com.thinkle_backend.exceptions.GameSessionNotFoundException;
 import com.thinkle_backend.exceptions.UserNotFoundException;
 import com.thinkle_backend.models.*;
 import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.models.enums.SessionStorageMode;
 import com.thinkle_backend.repositories.*;
 import com.thinkle_backend.services.GameSessionService;
 import com.thinkle_backend.services.WordOfTheDayService;
+import com.thinkle_backend.utils.GuessScorer;
+import com.thinkle_backend.utils.SessionLogCodec;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,10 @@ public class GameSessionServiceImpl implements GameSessionService {
     @Value("${thinkle.game.default.max-lives}")
     private Integer MAX_INITIAL_LIVES;
 
+    // Applies to new sessions, existing ones keep the mode they were stored in until they are migrated
+    @Value("${thinkle.game.session.storage-mode:COMPACT}")
+    private SessionStorageMode STORAGE_MODE;
+
     private final GameSessionRepository gameSessionRepository;
     private final ThinkleUsersRepository thinkleUsersRepository;
     private final HintRepository hintRepository;
@@ -48,7 +55,7 @@ public class GameSessionServiceImpl implements GameSessionService {
     @Transactional
     public GameSessionResponseDto createGameSession(GameSessionRequestDto requestDto) {
         ThinkleUsers user = getUserOrThrow(requestDto.getUserId());
-        WordOfTheDay word = wordOfTheDayService.generateWordOfTheDay();
+        WordOfTheDay word = wordOfTheDayService.getWordOfTheDay(LocalDate.now());
 
         GameSession session = new GameSession();
         session.setUser(user);
@@ -58,6 +65,7 @@ public class GameSessionServiceImpl implements GameSessionService {
         session.setGuesses(new ArrayList<>());
         session.setHints(new ArrayList<>());
         session.setWordOfTheDay(word);
+        session.setStorageMode(STORAGE_MODE);
 
         gameSessionRepository.save(session);
 
@@ -77,7 +85,7 @@ public class GameSessionServiceImpl implements GameSessionService {
     @Override
     public GameSessionResponseDto getOrCreateGameSession(GameSessionRequestDto requestDto) {
         return gameSessionRepository.findByUserIdAndGameDate(requestDto.getUserId(), LocalDate.now())
-                .map(session -> getGameSession(requestDto))
+                .map(this::buildFullGameSessionResponse)
                 .orElseGet(() -> createGameSession(requestDto));
     }
 
@@ -109,8 +117,14 @@ public class GameSessionServiceImpl implements GameSessionService {
         GameSessionResponseDto response = new GameSessionResponseDto();
         response.setGameStatus(session.getStatus());
         response.setRemainingLives(session.getRemainingLives());
-        response.setGuesses(mapGuesses(session.getGuesses()));
-        response.setHintsInfo(buildHintsInfo(session.getUser().getId(), session.getGameDate()));
+        if (session.isCompact()) {
+            // Everything is on the session row, nothing else is read
+            response.setGuesses(mapLoggedGuesses(session.getGuessLog()));
+            response.setHintsInfo(buildLoggedHintsInfo(session.getHintLog()));
+        } else {
+            response.setGuesses(mapGuesses(session.getGuesses()));
+            response.setHintsInfo(buildHintsInfo(session.getUser().getId(), session.getGameDate()));
+        }
         response.setAllHintTypes(getActiveHintTypes());
 
         return response;
@@ -129,6 +143,33 @@ public class GameSessionServiceImpl implements GameSessionService {
         return result;
     }
 
+    private List<GuessResponseDto> mapLoggedGuesses(byte[] guessLog) {
+        List<GuessResponseDto> result = new ArrayList<>();
+        for (SessionLogCodec.LoggedGuess guess : SessionLogCodec.decodeGuesses(guessLog)) {
+            GuessResponseDto dto = new GuessResponseDto();
+            dto.setGuessedWord(guess.guessedWord());
+            GuessScorer.applyTo(dto, guess.pattern(), guess.guessedWord().length());
+            dto.setAiResponse(null);
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private HintsInfoForSession buildLoggedHintsInfo(byte[] hintLog) {
+        List<HintDetails> details = new ArrayList<>();
+        for (SessionLogCodec.LoggedHint hint : SessionLogCodec.decodeHints(hintLog)) {
+            HintDetails hd = new HintDetails();
+            hd.setHintText(hint.text());
+            hd.setHintType(hint.hintType());
+            details.add(hd);
+        }
+
+        HintsInfoForSession info = new HintsInfoForSession();
+        info.setNumberOfHintsUsed(details.size());
+        info.setUsedHintDetails(details);
+        return info;
+    }
+
     private HintsInfoForSession buildHintsInfo(Long userId, LocalDate date) {
         List<Hint> hints = hintRepository.findByGameSession_User_IdAndGameSession_GameDate(userId, date);
         List<HintDetails> details = new ArrayList<>();
@@ -1,33 +1,57 @@
 package com.thinkle_backend.services.implementations;
 
+import com.thinkle_backend.ai.features.replyToGuesses.GenerateReplyToGuessesLocally;
 import com.thinkle_backend.ai.features.replyToGuesses.ReplyToGuessesGenerator;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import com.thinkle_backend.dictionary.DailyScoringTable;
+import com.thinkle_backend.dictionary.DailyScoringTables;
+import com.thinkle_backend.dictionary.DictionaryIndex;
 import com.thinkle_backend.dtos.requests.GuessRequestDto;
 import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.dtos.responses.GuessStreamResponseDto;
 import com.thinkle_backend.exceptions.CanNotSubmitGuessException;
 import com.thinkle_backend.exceptions.GameSessionNotFoundException;
 import com.thinkle_backend.exceptions.InvalidWordException;
-import com.thinkle_backend.exceptions.WordDoesNotExistsException;
 import com.thinkle_backend.models.GameSession;
 import com.thinkle_backend.models.Guess;
 import com.thinkle_backend.models.WordOfTheDay;
 import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.models.enums.ReplyMode;
 import com.thinkle_backend.repositories.GameSessionRepository;
 import com.thinkle_backend.repositories.GuessRepository;
 import com.thinkle_backend.repositories.HintRepository;
-import com.thinkle_backend.repositories.WordOfTheDayRepository;
 import com.thinkle_backend.services.GuessService;
-import com.thinkle_backend.utils.GuessUtils;
+import com.thinkle_backend.services.ReplyTicketService;
+import com.thinkle_backend.services.WordOfTheDayService;
+import com.thinkle_backend.utils.GuessScorer;
+import com.thinkle_backend.utils.SessionLogCodec;
 import com.thinkle_backend.utils.WordUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class GuessServiceImpl implements GuessService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GuessServiceImpl.class);
+    private static final String PHASE_TIMER = "thinkle.request.phase";
+
     @Value("${thinkle.game.default.word-length:5}")
     private Integer MAX_WORD_LENGTH;
 
@@ -37,44 +61,173 @@ public class GuessServiceImpl implements GuessService {
     @Value("${thinkle.game.default.max-guess-count}")
     private Integer MAX_GUESS_COUNT;
 
+    @Value("${thinkle.ai.reply.deadline-ms:1000}")
+    private Long AI_REPLY_DEADLINE_MS;
+
+    @Value("${thinkle.ai.reply.mode:AI}")
+    private ReplyMode DEFAULT_REPLY_MODE;
+
     private final GuessRepository guessRepository;
-    private final WordOfTheDayRepository wordOfTheDayRepository;
+    private final WordOfTheDayService wordOfTheDayService;
     private final GameSessionRepository gameSessionRepository;
     private final ReplyToGuessesGenerator replyToGuessesGenerator;
+    private final GenerateReplyToGuessesLocally localReplyGenerator;
     private final HintRepository hintRepository;
+    private final ReplyTicketService replyTicketService;
+    private final DictionaryIndex dictionaryIndex;
+    private final DailyScoringTables dailyScoringTables;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
     public GuessServiceImpl(
             GuessRepository guessRepository,
-            WordOfTheDayRepository wordOfTheDayRepository,
+            WordOfTheDayService wordOfTheDayService,
             GameSessionRepository gameSessionRepository,
             ReplyToGuessesGenerator replyToGuessesGenerator,
-            HintRepository hintRepository
+            GenerateReplyToGuessesLocally localReplyGenerator,
+            HintRepository hintRepository,
+            ReplyTicketService replyTicketService,
+            DictionaryIndex dictionaryIndex,
+            DailyScoringTables dailyScoringTables,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
     ) {
         this.guessRepository = guessRepository;
-        this.wordOfTheDayRepository = wordOfTheDayRepository;
+        this.wordOfTheDayService = wordOfTheDayService;
         this.gameSessionRepository = gameSessionRepository;
         this.replyToGuessesGenerator = replyToGuessesGenerator;
+        this.localReplyGenerator = localReplyGenerator;
         this.hintRepository = hintRepository;
+        this.replyTicketService = replyTicketService;
+        this.dictionaryIndex = dictionaryIndex;
+        this.dailyScoringTables = dailyScoringTables;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
     }
 
+    // Only the scoring runs in a transaction, the wait for the oracle reply holds no database connection
     @Override
-    @Transactional
     public GuessResponseDto processGuess(GuessRequestDto guessRequestDto) {
+        ReplyMode replyMode = resolveReplyMode(guessRequestDto);
+        Timer.Sample dbPhase = Timer.start(meterRegistry);
+        ScoredGuess scored = transactionTemplate.execute(status -> scoreGuess(guessRequestDto));
+        dbPhase.stop(meterRegistry.timer(PHASE_TIMER, "operation", "guess", "phase", "db"));
+
+        GuessResponseDto dto = buildResponseDto(scored);
+        if (replyMode == ReplyMode.LOCAL) {
+            dto.setAiResponse(localReply(scored));
+            return dto;
+        }
+
+        Timer.Sample aiPhase = Timer.start(meterRegistry);
+        CompletableFuture<String> reply = aiReply(scored, replyMode).toFuture();
+        applyReplyWithinDeadline(dto, guessRequestDto.getUserId(), reply, scored, replyMode);
+        aiPhase.stop(meterRegistry.timer(PHASE_TIMER, "operation", "guess", "phase", "ai"));
+
+        return dto;
+    }
+
+    // The reply stream is only subscribed after this transaction has committed, so streaming holds no connection
+    @Override
+    @Transactional
+    public GuessStreamResponseDto processGuessStreaming(GuessRequestDto guessRequestDto) {
+        ScoredGuess scored = scoreGuess(guessRequestDto);
+
+        Flux<String> replyChunks = switch (resolveReplyMode(guessRequestDto)) {
+            case LOCAL -> Flux.defer(() -> Flux.just(localReply(scored)));
+            case AI -> streamAiReply(scored);
+            // A failed or canned first chunk means the AI reply is not coming, the local one takes its place
+            case AUTO -> streamAiReply(scored).switchOnFirst((first, chunks) -> {
+                if (first.hasValue() && !LocalFallbackAiService.isCannedReply(first.get())) {
+                    return chunks;
+                }
+                return Flux.just(localReply(scored));
+            });
+        };
+
+        return new GuessStreamResponseDto(buildResponseDto(scored), replyChunks);
+    }
+
+    private ReplyMode resolveReplyMode(GuessRequestDto guessRequestDto) {
+        return guessRequestDto.getReplyMode() != null ? guessRequestDto.getReplyMode() : DEFAULT_REPLY_MODE;
+    }
+
+    private Mono<String> aiReply(ScoredGuess scored, ReplyMode replyMode) {
+        Mono<String> reply = replyToGuessesGenerator.generateReplyToTheGuessedWordAsync(
+                scored.guess().getGuessedWord(),
+                scored.solution(),
+                scored.status(),
+                scored.remainingLives(),
+                scored.hintCount()
+        ).contextWrite(AiRequestContext.forUser(scored.userId()));
+        if (replyMode != ReplyMode.AUTO) {
+            return reply;
+        }
+
+        // A canned fallback reply means the AI budget ran out, the local engine does better with the real facts
+        return reply.filter(aiResponse -> !LocalFallbackAiService.isCannedReply(aiResponse))
+                .onErrorResume(e -> Mono.empty())
+                .switchIfEmpty(Mono.fromSupplier(() -> localReply(scored)));
+    }
+
+    private Flux<String> streamAiReply(ScoredGuess scored) {
+        return replyToGuessesGenerator.streamReplyToTheGuessedWord(
+                scored.guess().getGuessedWord(),
+                scored.solution(),
+                scored.status(),
+                scored.remainingLives(),
+                scored.hintCount()
+        ).contextWrite(AiRequestContext.forUser(scored.userId()));
+    }
+
+    private String localReply(ScoredGuess scored) {
+        return localReplyGenerator.generateReplyToTheGuessedWord(
+                scored.guess().getGuessedWord(),
+                scored.solution(),
+                scored.status(),
+                scored.remainingLives(),
+                scored.hintCount()
+        );
+    }
+
+    // A COMPACT session takes one statement; only a miss (no session, game over or a TABLES session) reads the row
+    private ScoredGuess scoreGuess(GuessRequestDto guessRequestDto) {
         validateGuessWord(guessRequestDto.getGuessedWord());
 
-        GameSession gameSession = getActiveGameSession(guessRequestDto.getUserId());
-        WordOfTheDay wordOfTheDay = getTodayWordOfTheDay();
+        WordOfTheDay wordOfTheDay = wordOfTheDayService.getWordOfTheDay(LocalDate.now());
+        int dictionaryId = dictionaryIndex.idOf(guessRequestDto.getGuessedWord());
+        validateGuessInDictionary(guessRequestDto.getGuessedWord(), dictionaryId, wordOfTheDay.getSolutionWord());
 
-        GuessUtils guessUtils = new GuessUtils(wordOfTheDay.getSolutionWord(), guessRequestDto.getGuessedWord());
+        int pattern = scorePattern(wordOfTheDay, guessRequestDto.getGuessedWord(), dictionaryId);
+        Guess guess = newGuess(guessRequestDto, pattern);
 
-        Guess savedGuess = saveGuess(guessRequestDto, gameSession, guessUtils);
+        Optional<GameSessionRepository.GuessOutcome> outcome = gameSessionRepository.submitCompactGuess(
+                guessRequestDto.getUserId(),
+                LocalDate.now(),
+                SessionLogCodec.encodeGuess(guess.getGuessedWord(), pattern, guess.getTimestamp()),
+                GuessScorer.isSolved(pattern, MAX_WORD_LENGTH),
+                LIFE_COST_PER_WRONG_GUESS,
+                MAX_GUESS_COUNT
+        );
+        if (outcome.isPresent()) {
+            return new ScoredGuess(guessRequestDto.getUserId(), guess, pattern,
+                    GameStatus.valueOf(outcome.get().getStatus()), outcome.get().getRemainingLives(),
+                    wordOfTheDay.getSolutionWord(), outcome.get().getHintsUsed().longValue());
+        }
 
-        // update status AFTER guess is saved to keep count accurate
-        updateGameStatus(gameSession, guessUtils);
+        GameSession gameSession = getActiveGameSession(guessRequestDto.getUserId());
+        if (gameSession.isCompact()) {
+            // It was in progress a moment ago, another guess must have ended the game in between
+            throw new CanNotSubmitGuessException("Game has already ended today.");
+        }
 
-        Long hintCount = getHintCount(guessRequestDto.getUserId());
+        Guess savedGuess = saveGuess(guess, gameSession);
+        // update status AFTER guess is saved to keep count accurate
+        updateGameStatus(gameSession, pattern);
 
-        return buildResponseDto(savedGuess, guessUtils, gameSession, wordOfTheDay.getSolutionWord(), hintCount);
+        return new ScoredGuess(guessRequestDto.getUserId(), savedGuess, pattern, gameSession.getStatus(),
+                gameSession.getRemainingLives(), wordOfTheDay.getSolutionWord(),
+                getHintCount(gameSession));
     }
 
     private void validateGuessWord(String guessedWord) {
@@ -83,6 +236,26 @@ public class GuessServiceImpl implements GuessService {
         }
     }
 
+    // Lengths the index does not cover keep the letters-only check; the solution itself is always a valid guess
+    private void validateGuessInDictionary(String guessedWord, int dictionaryId, String solutionWord) {
+        if (dictionaryIndex.covers(guessedWord.length())
+                && dictionaryId < 0
+                && !guessedWord.equalsIgnoreCase(solutionWord)) {
+            throw new InvalidWordException("Not a word in the dictionary: " + guessedWord);
+        }
+    }
+
+    // One lookup in the day's precomputed table, scored on the spot while it is not built yet or for unindexed words
+    private int scorePattern(WordOfTheDay wordOfTheDay, String guessedWord, int dictionaryId) {
+        if (dictionaryId >= 0) {
+            DailyScoringTable table = dailyScoringTables.find(wordOfTheDay.getGeneratedAt(), wordOfTheDay.getSolutionWord());
+            if (table != null && table.wordLength() == guessedWord.length()) {
+                return table.patternFor(dictionaryId);
+            }
+        }
+        return GuessScorer.score(wordOfTheDay.getSolutionWord(), guessedWord);
+    }
+
     private GameSession getActiveGameSession(Long userId) {
         return gameSessionRepository
                 .findByUserIdAndGameDate(userId, LocalDate.now())
@@ -98,28 +271,25 @@ public class GuessServiceImpl implements GuessService {
                 .orElseThrow(() -> new GameSessionNotFoundException("No active game session for userId: " + userId));
     }
 
-    private WordOfTheDay getTodayWordOfTheDay() {
-        return wordOfTheDayRepository
-                .findByGeneratedAt(LocalDate.now())
-                .orElseThrow(() -> new WordDoesNotExistsException("Today's word not found."));
-    }
-
-    private Guess saveGuess(GuessRequestDto dto, GameSession gameSession, GuessUtils guessUtils) {
-        Guess guess = new Guess();
-        guess.setGuessedWord(dto.getGuessedWord());
-        guess.setTimestamp(LocalDateTime.now());
+    private Guess saveGuess(Guess guess, GameSession gameSession) {
         guess.setGameSession(gameSession);
-        guess.setCorrectPositionIndices(guessUtils.getCorrectPositionsOfGuessedWord());
-        guess.setMissedPositionIndices(guessUtils.getMissedPositionsOfGuessedWord());
-
         Guess saved = guessRepository.save(guess);
         gameSession.getGuesses().add(saved);  // optional if bi-directional
 
         return saved;
     }
 
-    private void updateGameStatus(GameSession gameSession, GuessUtils guessUtils) {
-        boolean isCorrectGuess = guessUtils.getCorrectPositionsOfGuessedWord().size() == MAX_WORD_LENGTH;
+    private Guess newGuess(GuessRequestDto dto, int pattern) {
+        Guess guess = new Guess();
+        guess.setGuessedWord(dto.getGuessedWord());
+        guess.setTimestamp(LocalDateTime.now());
+        GuessScorer.applyTo(guess, pattern, dto.getGuessedWord().length());
+        return guess;
+    }
+
+    private void updateGameStatus(GameSession gameSession, int pattern) {
+        boolean isCorrectGuess = GuessScorer.isSolved(pattern, MAX_WORD_LENGTH);
+        gameSession.setGuessCount(gameSession.getGuesses().size());
 
         if (isCorrectGuess) {
             gameSession.setStatus(GameStatus.WON);
@@ -135,27 +305,50 @@ public class GuessServiceImpl implements GuessService {
         gameSessionRepository.save(gameSession);
     }
 
-    private Long getHintCount(Long userId) {
-        return hintRepository.countByGameSession_User_IdAndGameSession_GameDate(userId, LocalDate.now());
+    // Counted on the hint table's session key, the session is already loaded so no join is needed
+    private Long getHintCount(GameSession gameSession) {
+        return hintRepository.countByGameSession_Id(gameSession.getId());
     }
 
-    private GuessResponseDto buildResponseDto(Guess guess, GuessUtils utils, GameSession session, String solution, Long hintCount) {
-        String reply = replyToGuessesGenerator.generateReplyToTheGuessedWord(
-                guess.getGuessedWord(),
-                solution,
-                session.getStatus(),
-                session.getRemainingLives(),
-                hintCount
-        );
-
+    private GuessResponseDto buildResponseDto(ScoredGuess scored) {
         GuessResponseDto dto = new GuessResponseDto();
-        dto.setGuessedWord(guess.getGuessedWord());
-        dto.setCorrectPositions(utils.getCorrectPositionsOfGuessedWord());
-        dto.setMissedPositions(utils.getMissedPositionsOfGuessedWord());
-        dto.setRemainingLives(session.getRemainingLives());
-        dto.setGameStatus(session.getStatus());
-        dto.setAiResponse(reply);
+        dto.setGuessedWord(scored.guess().getGuessedWord());
+        GuessScorer.applyTo(dto, scored.pattern(), scored.guess().getGuessedWord().length());
+        dto.setRemainingLives(scored.remainingLives());
+        dto.setGameStatus(scored.status());
 
         return dto;
     }
+
+    // Waits for the oracle reply up to the deadline, after that the guess result goes out with a ticket instead,
+    // or in AUTO mode with a local reply
+    private void applyReplyWithinDeadline(GuessResponseDto dto, Long userId, CompletableFuture<String> reply,
+                                          ScoredGuess scored, ReplyMode replyMode) {
+        try {
+            dto.setAiResponse(reply.get(AI_REPLY_DEADLINE_MS, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            logger.debug("Oracle reply missed the {} ms deadline for user {}", AI_REPLY_DEADLINE_MS, userId);
+            applyLateReply(dto, userId, reply, scored, replyMode);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            applyLateReply(dto, userId, reply, scored, replyMode);
+        } catch (ExecutionException e) {
+            // The guess is already committed, so it still goes out, just without the oracle's words
+            logger.warn("Oracle reply failed for user {}: {}", userId, e.getCause().getMessage());
+        }
+    }
+
+    private void applyLateReply(GuessResponseDto dto, Long userId, CompletableFuture<String> reply,
+                                ScoredGuess scored, ReplyMode replyMode) {
+        if (replyMode == ReplyMode.AUTO) {
+            dto.setAiResponse(localReply(scored));
+        } else {
+            dto.setReplyTicket(replyTicketService.registerPendingReply(userId, reply));
+        }
+    }
+
+    // pattern is the packed GuessScorer result
+    private record ScoredGuess(Long userId, Guess guess, int pattern, GameStatus status, Integer remainingLives,
+                               String solution, Long hintCount) {
+    }
 }
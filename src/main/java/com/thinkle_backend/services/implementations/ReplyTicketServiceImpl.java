@@ -0,0 +1,163 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.dtos.responses.GuessReplyResponseDto;
+import com.thinkle_backend.exceptions.ReplyTicketNotFoundException;
+import com.thinkle_backend.models.ReplyTicket;
+import com.thinkle_backend.models.enums.ReplyStatus;
+import com.thinkle_backend.repositories.ReplyTicketRepository;
+import com.thinkle_backend.services.ReplyTicketService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tickets live in the reply_ticket table, so a player polling through another node still gets the reply.
+ * The node that registered a ticket also holds the pending future until the outcome is stored, and waits on
+ * it directly; any other node polls the table for up to the requested wait.
+ */
+@Service
+public class ReplyTicketServiceImpl implements ReplyTicketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplyTicketServiceImpl.class);
+    private static final long PURGE_INTERVAL_MS = 60_000;
+
+    @Value("${thinkle.ai.reply.ticket-ttl-seconds:300}")
+    private Long TICKET_TTL_SECONDS;
+
+    @Value("${thinkle.ai.reply.ticket-poll-interval-ms:250}")
+    private Long TICKET_POLL_INTERVAL_MS;
+
+    private final ReplyTicketRepository replyTicketRepository;
+    private final Map<String, CompletableFuture<String>> localReplies = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeAt = new AtomicLong();
+
+    public ReplyTicketServiceImpl(ReplyTicketRepository replyTicketRepository) {
+        this.replyTicketRepository = replyTicketRepository;
+    }
+
+    @Override
+    public String registerPendingReply(Long userId, CompletableFuture<String> reply) {
+        purgeExpiredTickets();
+
+        ReplyTicket replyTicket = new ReplyTicket();
+        replyTicket.setTicket(UUID.randomUUID().toString());
+        replyTicket.setUserId(userId);
+        replyTicket.setStatus(ReplyStatus.PENDING);
+        replyTicket.setExpiresAt(LocalDateTime.now().plusSeconds(TICKET_TTL_SECONDS));
+        String ticket = replyTicketRepository.save(replyTicket).getTicket();
+
+        localReplies.put(ticket, reply);
+        // The reply may complete on an event loop, the update goes to a thread that may block
+        reply.whenCompleteAsync((text, error) -> storeOutcome(ticket, text, error),
+                runnable -> Schedulers.boundedElastic().schedule(runnable));
+        return ticket;
+    }
+
+    @Override
+    public CompletableFuture<GuessReplyResponseDto> getReply(Long userId, String replyTicket, long waitMs) {
+        ReplyTicket stored = replyTicketRepository.findByTicket(replyTicket)
+                .filter(ticket -> ticket.getUserId().equals(userId))
+                .filter(ticket -> ticket.getExpiresAt().isAfter(LocalDateTime.now()))
+                .orElseThrow(() -> new ReplyTicketNotFoundException("Reply ticket not found or expired: " + replyTicket));
+
+        CompletableFuture<String> localReply = localReplies.get(replyTicket);
+        if (localReply != null) {
+            return waitForLocalReply(replyTicket, localReply, waitMs);
+        }
+        if (stored.getStatus() != ReplyStatus.PENDING || waitMs <= 0) {
+            return CompletableFuture.completedFuture(toResponseDto(stored));
+        }
+
+        // Registered on another node, its outcome shows up in the table
+        return Flux.interval(Duration.ofMillis(TICKET_POLL_INTERVAL_MS))
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromCallable(() -> replyTicketRepository.findByTicket(replyTicket))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .filter(ticket -> ticket.isEmpty() || ticket.get().getStatus() != ReplyStatus.PENDING)
+                .next()
+                .map(ticket -> ticket.map(this::toResponseDto).orElseGet(() -> toPendingResponseDto(replyTicket)))
+                .timeout(Duration.ofMillis(waitMs), Mono.fromSupplier(() -> toPendingResponseDto(replyTicket)))
+                .toFuture();
+    }
+
+    private CompletableFuture<GuessReplyResponseDto> waitForLocalReply(String replyTicket,
+                                                                       CompletableFuture<String> reply,
+                                                                       long waitMs) {
+        if (reply.isDone() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(toResponseDto(replyTicket, reply));
+        }
+
+        // Derived future, so timing out the wait never cancels the reply itself
+        return reply
+                .handle((text, error) -> toResponseDto(replyTicket, reply))
+                .completeOnTimeout(toPendingResponseDto(replyTicket), waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void storeOutcome(String ticket, String text, Throwable error) {
+        try {
+            replyTicketRepository.complete(ticket, error == null ? ReplyStatus.READY : ReplyStatus.FAILED,
+                    error == null ? text : null, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Could not store the reply for ticket {}: {}", ticket, e.getMessage());
+        } finally {
+            localReplies.remove(ticket);
+        }
+    }
+
+    private GuessReplyResponseDto toResponseDto(ReplyTicket stored) {
+        if (stored.getStatus() == ReplyStatus.PENDING) {
+            return toPendingResponseDto(stored.getTicket());
+        }
+
+        GuessReplyResponseDto dto = new GuessReplyResponseDto();
+        dto.setReplyTicket(stored.getTicket());
+        dto.setStatus(stored.getStatus());
+        dto.setAiResponse(stored.getReply());
+        return dto;
+    }
+
+    private GuessReplyResponseDto toResponseDto(String replyTicket, CompletableFuture<String> reply) {
+        if (!reply.isDone()) {
+            return toPendingResponseDto(replyTicket);
+        }
+
+        GuessReplyResponseDto dto = new GuessReplyResponseDto();
+        dto.setReplyTicket(replyTicket);
+        if (reply.isCompletedExceptionally()) {
+            dto.setStatus(ReplyStatus.FAILED);
+        } else {
+            dto.setStatus(ReplyStatus.READY);
+            dto.setAiResponse(reply.join());
+        }
+        return dto;
+    }
+
+    private GuessReplyResponseDto toPendingResponseDto(String replyTicket) {
+        GuessReplyResponseDto dto = new GuessReplyResponseDto();
+        dto.setReplyTicket(replyTicket);
+        dto.setStatus(ReplyStatus.PENDING);
+        return dto;
+    }
+
+    private void purgeExpiredTickets() {
+        long now = System.currentTimeMillis();
+        long last = lastPurgeAt.get();
+        if (now - last < PURGE_INTERVAL_MS || !lastPurgeAt.compareAndSet(last, now)) {
+            return;
+        }
+        replyTicketRepository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -7,14 +7,28 @@ import com.thinkle_backend.models.*;
 import com.thinkle_backend.models.enums.GameStatus;
 import com.thinkle_backend.repositories.*;
 import com.thinkle_backend.services.WordHintService;
+import com.thinkle_backend.utils.SessionLogCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +36,7 @@ import org.slf4j.LoggerFactory;
 public class WordHintServiceImpl implements WordHintService {
 
     private static final Logger logger = LoggerFactory.getLogger(WordHintServiceImpl.class);
+    private static final String PHASE_TIMER = "thinkle.request.phase";
 
     @Value("${thinkle.game.default.min-life-to-use-hint}")
     private Integer MIN_REMAINING_LIVES_TO_USE_HINT;
@@ -32,56 +47,89 @@ public class WordHintServiceImpl implements WordHintService {
     @Value("${thinkle.game.default.life-cost-per-hint}")
     private Integer LIFE_COST_PER_HINT;
 
+    @Value("${thinkle.ai.hints.timeout-ms:15000}")
+    private Long HINT_GENERATION_TIMEOUT_MS;
+
+    @Value("${thinkle.ai.hints.parallelism:4}")
+    private Integer HINT_GENERATION_PARALLELISM;
+
+    @Value("${thinkle.ai.hints.retry.max-attempts:3}")
+    private Integer HINT_RETRY_MAX_ATTEMPTS;
+
+    @Value("${thinkle.ai.hints.retry.backoff-ms:5000}")
+    private Long HINT_RETRY_BACKOFF_MS;
+
     private final HintTypeRepository hintTypeRepository;
     private final WordOfTheDayRepository wordOfTheDayRepository;
     private final HintGenerator hintGenerator;
     private final WordHintRepository wordHintRepository;
     private final GameSessionRepository gameSessionRepository;
     private final HintRepository hintRepository;
+    private final MeterRegistry meterRegistry;
 
     public WordHintServiceImpl(HintTypeRepository hintTypeRepository,
                                WordOfTheDayRepository wordOfTheDayRepository,
                                HintGenerator hintGenerator,
                                WordHintRepository wordHintRepository,
                                GameSessionRepository gameSessionRepository,
-                               HintRepository hintRepository) {
+                               HintRepository hintRepository,
+                               MeterRegistry meterRegistry) {
         this.hintTypeRepository = hintTypeRepository;
         this.wordOfTheDayRepository = wordOfTheDayRepository;
         this.hintGenerator = hintGenerator;
         this.wordHintRepository = wordHintRepository;
         this.gameSessionRepository = gameSessionRepository;
         this.hintRepository = hintRepository;
+        this.meterRegistry = meterRegistry;
     }
 
+    // Runs outside a transaction: the reads and each hint's save take a connection only briefly,
+    // none is held while the hints are being generated
     @Override
-    @Transactional
     public void createHintsForWordOfTheDay(WordOfTheDay wordOfTheDay) {
         validateWordOfTheDayExists(wordOfTheDay);
 
-        List<HintType> hintTypes = fetchAllHintTypes();
+        List<HintType> missingHintTypes = findHintTypesWithoutHint(wordOfTheDay);
+        if (missingHintTypes.isEmpty()) {
+            return;
+        }
 
-        for (HintType hintType : hintTypes) {
-            try {
-                if (wordHintRepository.findByWordOfTheDayAndHintType(wordOfTheDay, hintType).isEmpty()) {
-                    String generatedHintText = hintGenerator.generateHint(
-                            wordOfTheDay.getSolutionWord(),
-                            hintType.getHintType()
-                    );
-
-                    WordHint wordHint = new WordHint();
-                    wordHint.setHintType(hintType);
-                    wordHint.setWordOfTheDay(wordOfTheDay);
-                    wordHint.setText(generatedHintText);
-                    wordHintRepository.save(wordHint);
-                }
-            } catch (DataIntegrityViolationException e) {
-                logger.warn("Concurrent creation detected: Hint already exists for word '{}' and type '{}'. Skipping.",
-                        wordOfTheDay.getSolutionWord(), hintType.getHintType(), e);
-            } catch (Exception e) {
-                logger.error("Unexpected error while generating hint for type '{}': {}", hintType.getHintType(), e.getMessage(), e);
-                throw new RuntimeException("Hint generation failed. Please try again later.");
+        // The generator asks for all missing types at once, a slow or failing type only costs its own hint
+        Timer.Sample aiPhase = Timer.start(meterRegistry);
+        Map<String, String> generatedTexts = hintGenerator.generateHintsAsync(
+                wordOfTheDay.getSolutionWord(),
+                missingHintTypes.stream().map(HintType::getHintType).toList()
+        ).block();
+        aiPhase.stop(meterRegistry.timer(PHASE_TIMER, "operation", "hint-generation", "phase", "ai"));
+
+        List<WordHint> generatedHints = new ArrayList<>();
+        List<HintType> failedHintTypes = new ArrayList<>();
+        for (HintType hintType : missingHintTypes) {
+            String generatedHintText = generatedTexts.get(hintType.getHintType());
+            if (generatedHintText == null) {
+                failedHintTypes.add(hintType);
+            } else {
+                generatedHints.add(buildWordHint(wordOfTheDay, hintType, generatedHintText));
             }
         }
+
+        meterRegistry.timer(PHASE_TIMER, "operation", "hint-generation", "phase", "db")
+                .record(() -> generatedHints.forEach(this::saveUnlessCreatedElsewhere));
+
+        if (!failedHintTypes.isEmpty()) {
+            retryHintsInBackground(wordOfTheDay, failedHintTypes);
+        }
+    }
+
+    @Override
+    public List<HintType> findHintTypesWithoutHint(WordOfTheDay wordOfTheDay) {
+        List<HintType> hintTypes = fetchAllHintTypes();
+        Set<Long> existingHintTypeIds = wordHintRepository.findAllByWordOfTheDay(wordOfTheDay).stream()
+                .map(wordHint -> wordHint.getHintType().getId())
+                .collect(Collectors.toSet());
+        return hintTypes.stream()
+                .filter(hintType -> !existingHintTypeIds.contains(hintType.getId()))
+                .toList();
     }
 
     @Override
@@ -94,7 +142,7 @@ public class WordHintServiceImpl implements WordHintService {
         }
 
         validateLives(session);
-        validateHintUsageLimit(userId);
+        validateHintUsageLimit(session);
 
         WordOfTheDay word = getTodayWordOfTheDay();
         HintType hintType = getHintType(hintTypeStr.trim());
@@ -106,21 +154,85 @@ public class WordHintServiceImpl implements WordHintService {
             throw new HintDoesNotExistsException("No valid hint text found!");
         }
 
-        deductLife(session);
-        saveHintUsage(session, wordHint);
+        int remainingLives;
+        if (session.isCompact()) {
+            remainingLives = appendHintUsage(session, wordHint);
+        } else {
+            deductLife(session);
+            saveHintUsage(session, wordHint);
+            remainingLives = session.getRemainingLives();
+        }
 
         GetHintResponseDto hintResponseDto = new GetHintResponseDto();
         hintResponseDto.setHintText(wordHint.getText());
-        hintResponseDto.setRemainingLives(session.getRemainingLives());
+        hintResponseDto.setRemainingLives(remainingLives);
         return hintResponseDto;
     }
 
     // ---------------------- Private Helpers ---------------------------- //
 
+    // Hints are also generated ahead of time, so the word is looked up by id rather than by today's date
     private void validateWordOfTheDayExists(WordOfTheDay wordOfTheDay) {
-        wordOfTheDay = wordOfTheDayRepository.findByGeneratedAt(LocalDate.now())
-                .orElseThrow(() -> new WordDoesNotExistsException("Today's word not found"));
+        if (wordOfTheDay == null || wordOfTheDay.getId() == null
+                || !wordOfTheDayRepository.existsById(wordOfTheDay.getId())) {
+            throw new WordDoesNotExistsException("Word of the day not found");
+        }
+    }
 
+    private Mono<WordHint> generateWordHint(WordOfTheDay wordOfTheDay, HintType hintType) {
+        return hintGenerator.generateHintAsync(wordOfTheDay.getSolutionWord(), hintType.getHintType())
+                .timeout(Duration.ofMillis(HINT_GENERATION_TIMEOUT_MS))
+                .map(generatedHintText -> buildWordHint(wordOfTheDay, hintType, generatedHintText));
+    }
+
+    private WordHint buildWordHint(WordOfTheDay wordOfTheDay, HintType hintType, String generatedHintText) {
+        WordHint wordHint = new WordHint();
+        wordHint.setHintType(hintType);
+        wordHint.setWordOfTheDay(wordOfTheDay);
+        wordHint.setText(generatedHintText);
+        return wordHint;
+    }
+
+    // Each hint is saved in its own transaction, one created concurrently elsewhere costs only itself
+    private void saveUnlessCreatedElsewhere(WordHint wordHint) {
+        try {
+            wordHintRepository.save(wordHint);
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Hint of type '{}' for word '{}' was already created elsewhere",
+                    wordHint.getHintType().getHintType(), wordHint.getWordOfTheDay().getSolutionWord());
+        }
+    }
+
+    // Starts once the word of the day is committed, each recovered hint is saved on its own
+    private void retryHintsInBackground(WordOfTheDay wordOfTheDay, List<HintType> failedHintTypes) {
+        Runnable retry = () -> Flux.fromIterable(failedHintTypes)
+                .flatMap(hintType -> generateWordHint(wordOfTheDay, hintType)
+                                .retryWhen(Retry.backoff(HINT_RETRY_MAX_ATTEMPTS, Duration.ofMillis(HINT_RETRY_BACKOFF_MS)))
+                                .publishOn(Schedulers.boundedElastic())
+                                .doOnNext(wordHintRepository::save)
+                                .doOnNext(saved -> logger.info("Hint of type '{}' generated on retry", hintType.getHintType()))
+                                .onErrorResume(e -> {
+                                    if (e instanceof DataIntegrityViolationException) {
+                                        logger.debug("Hint of type '{}' was already created elsewhere", hintType.getHintType());
+                                    } else {
+                                        logger.error("Giving up on hint of type '{}' for word '{}': {}",
+                                                hintType.getHintType(), wordOfTheDay.getSolutionWord(), e.getMessage());
+                                    }
+                                    return Mono.empty();
+                                }),
+                        HINT_GENERATION_PARALLELISM)
+                .subscribe();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    retry.run();
+                }
+            });
+        } else {
+            retry.run();
+        }
     }
 
     private List<HintType> fetchAllHintTypes() {
@@ -144,9 +256,10 @@ public class WordHintServiceImpl implements WordHintService {
         }
     }
 
-    private void validateHintUsageLimit(Long userId) {
-        long hintsUsed = hintRepository
-                .countByGameSession_User_IdAndGameSession_GameDate(userId, LocalDate.now());
+    private void validateHintUsageLimit(GameSession session) {
+        long hintsUsed = session.isCompact()
+                ? session.getHintsUsed()
+                : hintRepository.countByGameSession_Id(session.getId());
         if (hintsUsed >= MAX_LIMIT_OF_HINTS_USAGE_PER_USER_PER_DAY) {
             throw new CanNotUseHintException("Maximum number of hints used for today!");
         }
@@ -163,7 +276,11 @@ public class WordHintServiceImpl implements WordHintService {
     }
 
     private void ensureHintNotUsed(GameSession session, HintType type) {
-        if (hintRepository.existsByGameSession_IdAndWordHint_HintType_Id(session.getId(), type.getId())) {
+        boolean used = session.isCompact()
+                ? SessionLogCodec.decodeHints(session.getHintLog()).stream()
+                        .anyMatch(hint -> hint.hintType().equalsIgnoreCase(type.getHintType()))
+                : hintRepository.existsByGameSession_IdAndWordHint_HintType_Id(session.getId(), type.getId());
+        if (used) {
             throw new CanNotUseHintException("Hint of this type already used in this session!");
         }
     }
@@ -183,11 +300,31 @@ public class WordHintServiceImpl implements WordHintService {
         gameSessionRepository.save(session);
     }
 
+    // One UPDATE appends the hint to the session's log and takes the life, no Hint row is written
+    // The checks above are repeated by the UPDATE against the row itself, a refusal there means a concurrent
+    // guess or hint got in first. The managed session is left untouched, flushing it would write stale values back
+    private int appendHintUsage(GameSession session, WordHint wordHint) {
+        byte[] entry = SessionLogCodec.encodeHint(wordHint.getId(), wordHint.getHintType().getHintType(),
+                wordHint.getText(), LocalDateTime.now());
+        GameSessionRepository.HintOutcome outcome = gameSessionRepository.appendHint(
+                session.getId(),
+                entry,
+                wordHint.getHintType().getHintType(),
+                LIFE_COST_PER_HINT,
+                Math.max(LIFE_COST_PER_HINT, MIN_REMAINING_LIVES_TO_USE_HINT),
+                MAX_LIMIT_OF_HINTS_USAGE_PER_USER_PER_DAY
+        ).orElseThrow(() -> new CanNotUseHintException("Hint could not be used, the game has changed in the meantime!"));
+
+        return outcome.getRemainingLives();
+    }
+
     private void saveHintUsage(GameSession session, WordHint wordHint) {
         Hint hint = new Hint();
         hint.setGameSession(session);
         hint.setWordHint(wordHint);
         hint.setUsedAt(LocalDateTime.now());
         hintRepository.save(hint);
+        // Flushed with the session on commit
+        session.setHintsUsed(session.getHintsUsed() + 1);
     }
 }
@@ -0,0 +1,145 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.exceptions.WordDoesNotExistsException;
+import com.thinkle_backend.models.WordOfTheDay;
+import com.thinkle_backend.repositories.GenerationLeaseRepository;
+import com.thinkle_backend.repositories.WordOfTheDayRepository;
+import com.thinkle_backend.services.WordHintService;
+import com.thinkle_backend.services.WordOfTheDayService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes sure exactly one generator runs per day. Callers in this JVM share one in-flight generation,
+ * and across nodes only the holder of the day's lease row generates while the others wait for its row.
+ */
+@Service
+public class WordOfTheDayGenerationGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(WordOfTheDayGenerationGuard.class);
+    private static final String LEASE_KEY_PREFIX = "word-of-the-day:";
+
+    @Value("${thinkle.words.generation.lease-ttl-ms:300000}")
+    private Long LEASE_TTL_MS;
+
+    @Value("${thinkle.words.generation.wait-timeout-ms:360000}")
+    private Long WAIT_TIMEOUT_MS;
+
+    @Value("${thinkle.words.generation.poll-interval-ms:2000}")
+    private Long POLL_INTERVAL_MS;
+
+    private final WordOfTheDayService wordOfTheDayService;
+    private final WordHintService wordHintService;
+    private final WordOfTheDayRepository wordOfTheDayRepository;
+    private final GenerationLeaseRepository generationLeaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ':' + UUID.randomUUID();
+    private final ConcurrentHashMap<LocalDate, CompletableFuture<WordOfTheDay>> inFlight = new ConcurrentHashMap<>();
+
+    public WordOfTheDayGenerationGuard(WordOfTheDayService wordOfTheDayService,
+                                       WordHintService wordHintService,
+                                       WordOfTheDayRepository wordOfTheDayRepository,
+                                       GenerationLeaseRepository generationLeaseRepository,
+                                       MeterRegistry meterRegistry) {
+        this.wordOfTheDayService = wordOfTheDayService;
+        this.wordHintService = wordHintService;
+        this.wordOfTheDayRepository = wordOfTheDayRepository;
+        this.generationLeaseRepository = generationLeaseRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public WordOfTheDay generate(LocalDate date) {
+        CompletableFuture<WordOfTheDay> generation = new CompletableFuture<>();
+        CompletableFuture<WordOfTheDay> running = inFlight.putIfAbsent(date, generation);
+        if (running != null) {
+            countCaller("joined");
+            return await(running, date);
+        }
+
+        try {
+            WordOfTheDay word = generateUnderLease(date);
+            generation.complete(word);
+            return word;
+        } catch (RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(date, generation);
+        }
+    }
+
+    private WordOfTheDay generateUnderLease(LocalDate date) {
+        String leaseKey = LEASE_KEY_PREFIX + date;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MS);
+
+        while (true) {
+            // A day that is already complete needs no lease at all
+            Optional<WordOfTheDay> existing = wordOfTheDayRepository.findByGeneratedAt(date);
+            if (existing.isPresent() && wordHintService.findHintTypesWithoutHint(existing.get()).isEmpty()) {
+                return existing.get();
+            }
+
+            if (generationLeaseRepository.tryAcquire(leaseKey, nodeId, LEASE_TTL_MS) > 0) {
+                countCaller("leader");
+                try {
+                    WordOfTheDay word = wordOfTheDayService.generateWordOfTheDay(date);
+                    if (existing.isPresent()) {
+                        wordHintService.createHintsForWordOfTheDay(word);
+                    }
+                    return word;
+                } finally {
+                    generationLeaseRepository.release(leaseKey, nodeId);
+                }
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new WordDoesNotExistsException("Word of the day for " + date + " is still being generated elsewhere");
+            }
+            countCaller("waited");
+            logger.debug("Another node holds the lease for {}, waiting for its word", date);
+            sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    private WordOfTheDay await(CompletableFuture<WordOfTheDay> running, LocalDate date) {
+        try {
+            return running.get(WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Word of the day generation failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new WordDoesNotExistsException("Word of the day for " + date + " is still being generated");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WordDoesNotExistsException("Interrupted while waiting for the word of the day for " + date);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WordDoesNotExistsException("Interrupted while waiting for the word of the day");
+        }
+    }
+
+    private void countCaller(String role) {
+        meterRegistry.counter("thinkle.words.generation.callers", "role", role).increment();
+    }
+}
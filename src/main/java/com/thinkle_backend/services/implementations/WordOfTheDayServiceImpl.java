@@ -1,63 +1,130 @@
 package com.thinkle_backend.services.implementations;
 
 import com.thinkle_backend.ai.features.wordGenerator.WordOfTheDayGenerator;
+import com.thinkle_backend.dictionary.WordBank;
 import com.thinkle_backend.exceptions.InvalidWordException;
 import com.thinkle_backend.exceptions.WordAlreadyExistsException;
+import com.thinkle_backend.exceptions.WordDoesNotExistsException;
 import com.thinkle_backend.models.WordOfTheDay;
 import com.thinkle_backend.repositories.WordOfTheDayRepository;
 import com.thinkle_backend.services.WordHintService;
 import com.thinkle_backend.services.WordOfTheDayService;
+import com.thinkle_backend.services.events.WordOfTheDayMissingEvent;
 import com.thinkle_backend.utils.WordUtils;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class WordOfTheDayServiceImpl implements WordOfTheDayService {
 
+    private static final String PHASE_TIMER = "thinkle.request.phase";
+
     @Value("${thinkle.game.default.word-length:5}")
     private Integer MAX_WORD_LENGTH;
 
     private final WordOfTheDayRepository wordOfTheDayRepository;
     private final WordOfTheDayGenerator wordOfTheDayGenerator;
+    private final WordBank wordBank;
     private final WordHintService wordHintService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    // A day's word never changes once stored, so it is read from the database once per node
+    private final ConcurrentMap<LocalDate, WordOfTheDay> wordsByDate = new ConcurrentHashMap<>();
 
     public WordOfTheDayServiceImpl(WordOfTheDayRepository wordOfTheDayRepository,
                                    WordOfTheDayGenerator wordOfTheDayGenerator,
-                                   WordHintService wordHintService) {
+                                   WordBank wordBank,
+                                   WordHintService wordHintService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
         this.wordOfTheDayRepository = wordOfTheDayRepository;
         this.wordOfTheDayGenerator = wordOfTheDayGenerator;
+        this.wordBank = wordBank;
         this.wordHintService = wordHintService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Words are generated ahead of time, a player never waits on the AI for one
+    @Override
+    public WordOfTheDay getWordOfTheDay(LocalDate date) {
+        WordOfTheDay remembered = wordsByDate.get(date);
+        if (remembered != null) {
+            return remembered;
+        }
+        return wordOfTheDayRepository.findByGeneratedAt(date)
+                .map(word -> remember(date, word))
+                .orElseThrow(() -> {
+                    eventPublisher.publishEvent(new WordOfTheDayMissingEvent(date));
+                    return new WordDoesNotExistsException("Today's word is not ready yet, please try again shortly!");
+                });
     }
 
+    // The AI calls run outside any transaction, only the inserts on either side of them take a connection
     @Override
-    @Transactional
-    public WordOfTheDay generateWordOfTheDay() {
-        Optional<WordOfTheDay> existing = wordOfTheDayRepository.findByGeneratedAt(LocalDate.now());
+    public WordOfTheDay generateWordOfTheDay(LocalDate date) {
+        Optional<WordOfTheDay> existing = wordOfTheDayRepository.findByGeneratedAt(date);
         if (existing.isPresent()) return existing.get();
 
-        String word = wordOfTheDayGenerator.generateWordOfTheDay();
+        String word = meterRegistry.timer(PHASE_TIMER, "operation", "word-rollover", "phase", "ai")
+                .record(wordOfTheDayGenerator::generateWordOfTheDay);
         if (!WordUtils.isValidWord(word, MAX_WORD_LENGTH)) {
             throw new InvalidWordException("Invalid word: " + word);
         }
+        if (wasUsedBefore(word)) {
+            throw new WordAlreadyExistsException("Word was already used on another day: " + word);
+        }
 
         WordOfTheDay entity = new WordOfTheDay();
         entity.setSolutionWord(word.trim().toUpperCase());
-        entity.setGeneratedAt(LocalDate.now());
+        entity.setGeneratedAt(date);
+        entity.setBankUse(wordBank.useCount(word));
 
+        WordOfTheDay saved;
         try {
-            WordOfTheDay saved = wordOfTheDayRepository.save(entity);
-            wordHintService.createHintsForWordOfTheDay(saved);
-            return saved;
+            saved = meterRegistry.timer(PHASE_TIMER, "operation", "word-rollover", "phase", "db")
+                    .record(() -> transactionTemplate.execute(status -> wordOfTheDayRepository.save(entity)));
         } catch (DataIntegrityViolationException ex) {
             // Another thread inserted it first, fetch it instead
-            return wordOfTheDayRepository.findByGeneratedAt(LocalDate.now())
-                    .orElseThrow(() -> new RuntimeException("Race condition occurred, and fallback failed."));
+            Optional<WordOfTheDay> stored = wordOfTheDayRepository.findByGeneratedAt(date);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+            // Another node made the same bank word a solution in this cycle, the history here was behind
+            wordBank.reloadUsedWords();
+            throw new WordAlreadyExistsException("Word was already used on another day: " + word);
+        }
+
+        wordBank.markUsed(saved.getSolutionWord());
+        wordHintService.createHintsForWordOfTheDay(saved);
+        return saved;
+    }
+
+    // Days before yesterday are no longer played, their words are let go
+    private WordOfTheDay remember(LocalDate date, WordOfTheDay word) {
+        wordsByDate.put(date, word);
+        wordsByDate.keySet().removeIf(day -> day.isBefore(LocalDate.now().minusDays(1)));
+        return word;
+    }
+
+    // Bank words are checked against the in-memory used set, only other words need the table scan
+    private boolean wasUsedBefore(String word) {
+        if (wordBank.contains(word)) {
+            return wordBank.isUsed(word);
         }
+        return wordOfTheDayRepository.existsBySolutionWordIgnoreCase(word.trim()).orElse(false);
     }
 
 }
@@ -0,0 +1,142 @@
+package com.thinkle_backend.utils;
+
+import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.models.Guess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scores a guess into one packed int, 2 bits per position: {@link #ABSENT}, {@link #PRESENT} (right letter,
+ * wrong place) or {@link #CORRECT}. Letters compare case-insensitively and scoring allocates nothing; a
+ * repeated letter is only marked present as often as the solution has it left over after exact matches.
+ * Index lists for the API and the Guess entity are only built by the adapters at the edge.
+ */
+public final class GuessScorer {
+
+    public static final int ABSENT = 0;
+    public static final int PRESENT = 1;
+    public static final int CORRECT = 2;
+    public static final int MAX_LENGTH = 16;
+
+    private static final int STATE_MASK = 0b11;
+    // CORRECT in every position of the longest word, shifted down for shorter ones
+    private static final int ALL_CORRECT = 0xAAAAAAAA;
+
+    private GuessScorer() {
+    }
+
+    public static int score(byte[] solution, byte[] guess) {
+        int length = Math.min(Math.min(solution.length, guess.length), MAX_LENGTH);
+        int packed = 0;
+        int consumed = 0;
+
+        for (int i = 0; i < length; i++) {
+            if ((solution[i] | 0x20) == (guess[i] | 0x20)) {
+                packed |= CORRECT << (i << 1);
+                consumed |= 1 << i;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (stateAt(packed, i) == CORRECT) {
+                continue;
+            }
+            int letter = guess[i] | 0x20;
+            for (int j = 0; j < length; j++) {
+                if ((consumed & (1 << j)) == 0 && (solution[j] | 0x20) == letter) {
+                    packed |= PRESENT << (i << 1);
+                    consumed |= 1 << j;
+                    break;
+                }
+            }
+        }
+        return packed;
+    }
+
+    // Same rules straight off the Strings, so callers holding Strings skip the byte[] copies
+    public static int score(CharSequence solution, CharSequence guess) {
+        int length = Math.min(Math.min(solution.length(), guess.length()), MAX_LENGTH);
+        int packed = 0;
+        int consumed = 0;
+
+        for (int i = 0; i < length; i++) {
+            if ((solution.charAt(i) | 0x20) == (guess.charAt(i) | 0x20)) {
+                packed |= CORRECT << (i << 1);
+                consumed |= 1 << i;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (stateAt(packed, i) == CORRECT) {
+                continue;
+            }
+            int letter = guess.charAt(i) | 0x20;
+            for (int j = 0; j < length; j++) {
+                if ((consumed & (1 << j)) == 0 && (solution.charAt(j) | 0x20) == letter) {
+                    packed |= PRESENT << (i << 1);
+                    consumed |= 1 << j;
+                    break;
+                }
+            }
+        }
+        return packed;
+    }
+
+    public static int stateAt(int packed, int position) {
+        return (packed >>> (position << 1)) & STATE_MASK;
+    }
+
+    public static int correctCount(int packed) {
+        // CORRECT is the high bit of a position, PRESENT the low one, and no position has both
+        return Integer.bitCount(packed & ALL_CORRECT);
+    }
+
+    public static int presentCount(int packed) {
+        return Integer.bitCount(packed & (ALL_CORRECT >>> 1));
+    }
+
+    public static boolean isSolved(int packed, int wordLength) {
+        return correctCount(packed) == wordLength;
+    }
+
+    // ---------------------- Adapters ---------------------------- //
+
+    public static List<Integer> correctPositions(int packed, int wordLength) {
+        return positionsIn(packed, wordLength, CORRECT);
+    }
+
+    public static List<Integer> missedPositions(int packed, int wordLength) {
+        return positionsIn(packed, wordLength, PRESENT);
+    }
+
+    public static void applyTo(GuessResponseDto dto, int packed, int wordLength) {
+        dto.setCorrectPositions(correctPositions(packed, wordLength));
+        dto.setMissedPositions(missedPositions(packed, wordLength));
+    }
+
+    public static void applyTo(Guess guess, int packed, int wordLength) {
+        guess.setCorrectPositionIndices(correctPositions(packed, wordLength));
+        guess.setMissedPositionIndices(missedPositions(packed, wordLength));
+    }
+
+    // Packs position lists stored the old way, e.g. when migrating Guess rows
+    public static int pack(List<Integer> correctPositions, List<Integer> missedPositions) {
+        int packed = 0;
+        for (Integer position : correctPositions) {
+            packed |= CORRECT << (position << 1);
+        }
+        for (Integer position : missedPositions) {
+            packed |= PRESENT << (position << 1);
+        }
+        return packed;
+    }
+
+    private static List<Integer> positionsIn(int packed, int wordLength, int state) {
+        List<Integer> positions = new ArrayList<>(wordLength);
+        for (int i = 0; i < Math.min(wordLength, MAX_LENGTH); i++) {
+            if (stateAt(packed, i) == state) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,122 @@
+package com.thinkle_backend.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of the guess_log and hint_log columns of a compact game session. Each log is a plain
+ * concatenation of entries, so a new entry is appended in SQL with {@code ||} without reading the log back.
+ * <pre>
+ * guess entry: version(1) length(1) letters(length, ASCII) pattern(4, packed as in GuessScorer) at(8)
+ * hint entry:  version(1) wordHintId(8) at(8) hintType(modified UTF-8) text(modified UTF-8)
+ * </pre>
+ * Times are the local date-time written as epoch seconds at UTC, so they read back unchanged.
+ */
+public final class SessionLogCodec {
+
+    private static final byte VERSION = 1;
+    private static final int GUESS_FIXED_BYTES = 1 + 1 + Integer.BYTES + Long.BYTES;
+
+    private SessionLogCodec() {
+    }
+
+    public static byte[] encodeGuess(String guessedWord, int pattern, LocalDateTime at) {
+        byte[] letters = guessedWord.getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(GUESS_FIXED_BYTES + letters.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(letters.length);
+            out.write(letters);
+            out.writeInt(pattern);
+            out.writeLong(at.toEpochSecond(ZoneOffset.UTC));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static byte[] encodeHint(Long wordHintId, String hintType, String text, LocalDateTime at) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(wordHintId);
+            out.writeLong(at.toEpochSecond(ZoneOffset.UTC));
+            out.writeUTF(hintType);
+            out.writeUTF(text == null ? "" : text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static List<LoggedGuess> decodeGuesses(byte[] log) {
+        List<LoggedGuess> guesses = new ArrayList<>();
+        if (log == null) {
+            return guesses;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(log))) {
+            while (in.available() > 0) {
+                checkVersion(in.readByte());
+                byte[] letters = new byte[in.readUnsignedByte()];
+                in.readFully(letters);
+                int pattern = in.readInt();
+                LocalDateTime at = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+                guesses.add(new LoggedGuess(new String(letters, StandardCharsets.US_ASCII), pattern, at));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt guess log", e);
+        }
+        return guesses;
+    }
+
+    public static List<LoggedHint> decodeHints(byte[] log) {
+        List<LoggedHint> hints = new ArrayList<>();
+        if (log == null) {
+            return hints;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(log))) {
+            while (in.available() > 0) {
+                checkVersion(in.readByte());
+                long wordHintId = in.readLong();
+                LocalDateTime at = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+                hints.add(new LoggedHint(wordHintId, in.readUTF(), in.readUTF(), at));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt hint log", e);
+        }
+        return hints;
+    }
+
+    // Walks the entry lengths only, nothing is decoded
+    public static int countGuesses(byte[] log) {
+        if (log == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int position = 0; position < log.length; count++) {
+            position += GUESS_FIXED_BYTES + (log[position + 1] & 0xFF);
+        }
+        return count;
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported session log entry version " + version);
+        }
+    }
+
+    public record LoggedGuess(String guessedWord, int pattern, LocalDateTime at) {
+    }
+
+    public record LoggedHint(Long wordHintId, String hintType, String text, LocalDateTime at) {
+    }
+}
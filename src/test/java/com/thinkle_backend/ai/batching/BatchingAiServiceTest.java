@@ -0,0 +1,55 @@
+package com.thinkle_backend.ai.batching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiRequestShedException;
+import com.thinkle_backend.ai.prompts.PromptBuilder;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
+import com.thinkle_backend.ai.scheduling.UserQuota;
+import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchingAiServiceTest {
+
+    @Test
+    void batchedRepliesSpendTheCallersQuotaBeforeTheyAreQueued() {
+        AiService delegate = mock(AiService.class);
+        when(delegate.getAnswerAsync(eq(AiFeature.REPLY), anyString())).thenReturn(Mono.just("The oracle hums."));
+
+        try (BatchingAiService batching = new BatchingAiService(
+                delegate,
+                mock(PromptBuilder.class),
+                new ObjectMapper(),
+                new UserQuota(0.0, 1),
+                new SimpleMeterRegistry(),
+                Duration.ofMillis(10),
+                1,
+                1
+        )) {
+            assertEquals("The oracle hums.", reply(batching, 1L));
+            assertThrows(AiRequestShedException.class, () -> reply(batching, 1L));
+            assertEquals("The oracle hums.", reply(batching, 2L));
+        }
+
+        verify(delegate, times(2)).getAnswerAsync(eq(AiFeature.REPLY), anyString());
+    }
+
+    private static String reply(BatchingAiService batching, Long userId) {
+        return batching.getAnswerAsync(AiFeature.REPLY, "question")
+                .contextWrite(AiRequestContext.forUser(userId))
+                .block(Duration.ofSeconds(5));
+    }
+}
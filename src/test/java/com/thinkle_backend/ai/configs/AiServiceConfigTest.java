@@ -0,0 +1,85 @@
+package com.thinkle_backend.ai.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.exceptions.AiRequestShedException;
+import com.thinkle_backend.ai.prompts.PromptBuilder;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
+import com.thinkle_backend.ai.services.AiService;
+import com.thinkle_backend.ai.services.implementations.GeminiAiServiceImpl;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Builds the composed AiService the way the application does, with the Gemini client mocked
+class AiServiceConfigTest {
+
+    private final GeminiAiServiceImpl gemini = mock(GeminiAiServiceImpl.class);
+    private final PromptBuilder promptBuilder = mock(PromptBuilder.class);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(AiServiceConfig.class)
+            .withBean(GeminiAiServiceImpl.class, () -> gemini)
+            .withBean(LocalFallbackAiService.class, () -> mock(LocalFallbackAiService.class))
+            .withBean(PromptBuilder.class, () -> promptBuilder)
+            .withBean(ObjectMapper.class, ObjectMapper::new)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "thinkle.ai.batching.enabled=true",
+                    "thinkle.ai.batching.window-ms=50",
+                    "thinkle.ai.scheduler.enabled=true",
+                    "thinkle.ai.scheduler.max-wait-ms.reply=200",
+                    "thinkle.ai.resilience.fallback.enabled=false",
+                    "thinkle.ai.resilience.retry.max-retries=0"
+            );
+
+    @Test
+    void aBatchedReplySpendsOneTokenOfItsUsersQuota() {
+        when(gemini.getAnswerAsync(eq(AiFeature.REPLY), any())).thenReturn(Mono.just("The oracle hums."));
+
+        contextRunner
+                .withPropertyValues("thinkle.ai.scheduler.user-burst=1", "thinkle.ai.scheduler.user-rate-per-minute=0")
+                .run(context -> {
+                    AiService aiService = context.getBean(AiService.class);
+
+                    assertEquals("The oracle hums.", reply(aiService, 1L).block(Duration.ofSeconds(5)));
+                    assertThrows(AiRequestShedException.class, () -> reply(aiService, 1L).block(Duration.ofSeconds(5)));
+                });
+    }
+
+    @Test
+    void aBatchSpendsOneGlobalTokenForItsUpstreamCall() {
+        when(promptBuilder.generateBatchPrompt(any())).thenReturn("batch");
+        when(gemini.getAnswerAsync(eq(AiFeature.REPLY_BATCH), any())).thenReturn(Mono.just("[\"first\", \"second\"]"));
+
+        contextRunner
+                .withPropertyValues("thinkle.ai.scheduler.burst=1", "thinkle.ai.scheduler.rate-per-second=0.001")
+                .run(context -> {
+                    AiService aiService = context.getBean(AiService.class);
+
+                    var replies = Mono.zip(reply(aiService, 1L), reply(aiService, 2L)).block(Duration.ofSeconds(5));
+                    assertEquals("first", replies.getT1());
+                    assertEquals("second", replies.getT2());
+                });
+
+        verify(gemini, times(1)).getAnswerAsync(eq(AiFeature.REPLY_BATCH), any());
+    }
+
+    private static Mono<String> reply(AiService aiService, Long userId) {
+        return aiService.getAnswerAsync(AiFeature.REPLY, "question").contextWrite(AiRequestContext.forUser(userId));
+    }
+}
@@ -0,0 +1,19 @@
+package com.thinkle_backend.ai.features.replyToGuesses;
+
+import com.thinkle_backend.models.enums.GameStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GenerateReplyToGuessesLocallyTest {
+
+    // Pinned text: a seed that mixed in anything with an identity hash would change it from run to run
+    @Test
+    void knownSeedAndFactsGiveAFixedReply() {
+        GenerateReplyToGuessesLocally generator = new GenerateReplyToGuessesLocally(42L);
+
+        String reply = generator.generateReplyToTheGuessedWord("crane", "REACT", GameStatus.IN_PROGRESS, 2, 0L);
+
+        assertEquals("1 letters found their place and 3 more are lost nearby. Your lives are thinning, 2 remain.", reply);
+    }
+}
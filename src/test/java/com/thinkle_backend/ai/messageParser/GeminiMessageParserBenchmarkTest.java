@@ -0,0 +1,99 @@
+package com.thinkle_backend.ai.messageParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The benchmark only runs on demand: mvn test -Dtest=GeminiMessageParserBenchmarkTest -Dbenchmark=true
+class GeminiMessageParserBenchmarkTest {
+
+    private static final String RESPONSE = """
+            {
+              "candidates": [
+                {
+                  "content": {
+                    "parts": [ { "text": "  Close! The oracle senses two letters in their rightful place.  " } ],
+                    "role": "model"
+                  },
+                  "finishReason": "STOP",
+                  "safetyRatings": [
+                    { "category": "HARM_CATEGORY_HATE_SPEECH", "probability": "NEGLIGIBLE" },
+                    { "category": "HARM_CATEGORY_DANGEROUS_CONTENT", "probability": "NEGLIGIBLE" },
+                    { "category": "HARM_CATEGORY_HARASSMENT", "probability": "NEGLIGIBLE" },
+                    { "category": "HARM_CATEGORY_SEXUALLY_EXPLICIT", "probability": "NEGLIGIBLE" }
+                  ],
+                  "avgLogprobs": -0.2131718993186951
+                },
+                {
+                  "content": { "parts": [ { "text": "A second candidate that is never read." } ], "role": "model" },
+                  "finishReason": "STOP"
+                }
+              ],
+              "usageMetadata": {
+                "promptTokenCount": 182,
+                "candidatesTokenCount": 14,
+                "totalTokenCount": 196,
+                "promptTokensDetails": [ { "modality": "TEXT", "tokenCount": 182 } ]
+              },
+              "modelVersion": "gemini-2.0-flash",
+              "responseId": "mDtWaOqkFcXrjMcPvJ-j0Ak"
+            }
+            """;
+
+    private final GeminiMessageParser parser = new GeminiMessageParser(new ObjectMapper());
+    private final byte[] responseBytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void streamingParseMatchesTreeParseAndReadsTokenUsage() {
+        AiParsedResponse parsed = parser.parse(new ByteArrayInputStream(responseBytes));
+
+        assertEquals(parser.extractText(RESPONSE), parsed.text());
+        assertEquals(182, parsed.promptTokenCount());
+        assertEquals(14, parsed.candidatesTokenCount());
+        assertEquals(196, parsed.totalTokenCount());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTreeAgainstStreaming() {
+        // The tree path includes decoding the body to a String, as WebClient does before extractText
+        Function<byte[], String> tree = bytes -> parser.extractText(new String(bytes, StandardCharsets.UTF_8));
+        Function<byte[], String> streaming = bytes -> parser.parse(new ByteArrayInputStream(bytes)).text();
+
+        for (int round = 0; round < 3; round++) {
+            run("tree", tree, 50_000);
+            run("streaming", streaming, 50_000);
+        }
+        run("tree", tree, 200_000).print();
+        run("streaming", streaming, 200_000).print();
+    }
+
+    private Result run(String name, Function<byte[], String> path, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int sink = 0;
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += path.apply(responseBytes).length();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(name, (double) elapsed / iterations, (double) allocated / iterations, sink);
+    }
+
+    private record Result(String name, double nanosPerOp, double bytesPerOp, int sink) {
+        void print() {
+            System.out.printf("%-10s %10.1f ns/op %10.1f B/op%n", name, nanosPerOp, bytesPerOp);
+        }
+    }
+}
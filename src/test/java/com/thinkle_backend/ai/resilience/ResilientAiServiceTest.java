@@ -0,0 +1,96 @@
+package com.thinkle_backend.ai.resilience;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.services.AiService;
+import com.thinkle_backend.ai.services.implementations.LocalFallbackAiService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResilientAiServiceTest {
+
+    @Test
+    void retriesWithdrawFromTheBudgetWithoutDepositingAgain() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger attempts = new AtomicInteger();
+        AiService delegate = mock(AiService.class);
+        when(delegate.getAnswerAsync(eq(AiFeature.HINT), anyString())).thenReturn(Mono.defer(() ->
+                attempts.incrementAndGet() < 3 ? Mono.error(new IllegalStateException("flaky")) : Mono.just("hint")));
+
+        RetryBudget retryBudget = spy(new RetryBudget(0.1, 10, meterRegistry));
+        ResilientAiService resilient = resilient(delegate, retryBudget, meterRegistry, 3, false);
+
+        assertEquals("hint", resilient.getAnswerAsync(AiFeature.HINT, "prompt").block(Duration.ofSeconds(5)));
+        assertEquals(3, attempts.get());
+        verify(retryBudget, times(1)).recordRequest();
+        verify(retryBudget, times(2)).tryWithdraw();
+    }
+
+    @Test
+    void aFailingPrimaryLeavesAFiredHedgeToAnswer() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        AiService delegate = mock(AiService.class);
+        when(delegate.getAnswerAsync(eq(AiFeature.HINT), anyString())).thenReturn(Mono.defer(() -> switch (calls.incrementAndGet()) {
+            case 1 -> Mono.just("warm-up");
+            case 2 -> Mono.delay(Duration.ofMillis(100)).then(Mono.error(new IllegalStateException("primary")));
+            default -> Mono.delay(Duration.ofMillis(300)).thenReturn("hedge");
+        }));
+        ResilientAiService resilient = resilient(delegate, new RetryBudget(0.1, 10, meterRegistry), meterRegistry, 0, true);
+
+        // The warm-up answer gives the latency tracker its sample, the hedge delay is then about zero
+        resilient.getAnswerAsync(AiFeature.HINT, "prompt").block(Duration.ofSeconds(5));
+
+        assertEquals("hedge", resilient.getAnswerAsync(AiFeature.HINT, "prompt").block(Duration.ofSeconds(5)));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void thePrimaryFailureSurfacesWhenTheHedgeFailsToo() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger calls = new AtomicInteger();
+        AiService delegate = mock(AiService.class);
+        when(delegate.getAnswerAsync(eq(AiFeature.HINT), anyString())).thenReturn(Mono.defer(() -> switch (calls.incrementAndGet()) {
+            case 1 -> Mono.just("warm-up");
+            case 2 -> Mono.delay(Duration.ofMillis(100)).then(Mono.error(new IllegalStateException("primary")));
+            default -> Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalArgumentException("hedge")));
+        }));
+        ResilientAiService resilient = resilient(delegate, new RetryBudget(0.1, 10, meterRegistry), meterRegistry, 0, true);
+        resilient.getAnswerAsync(AiFeature.HINT, "prompt").block(Duration.ofSeconds(5));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> resilient.getAnswerAsync(AiFeature.HINT, "prompt").block(Duration.ofSeconds(5)));
+        assertEquals("primary", failure.getMessage());
+    }
+
+    private static ResilientAiService resilient(AiService delegate, RetryBudget retryBudget,
+                                                SimpleMeterRegistry meterRegistry, int maxRetries, boolean hedging) {
+        return new ResilientAiService(
+                delegate,
+                mock(LocalFallbackAiService.class),
+                new CircuitBreaker("test", 100, 10, 10, Duration.ofSeconds(30), 1, meterRegistry),
+                retryBudget,
+                meterRegistry,
+                maxRetries,
+                Duration.ofMillis(1),
+                Duration.ofMillis(2),
+                hedging,
+                0.95,
+                1,
+                false
+        );
+    }
+}
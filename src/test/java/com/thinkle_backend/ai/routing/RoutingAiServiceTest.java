@@ -0,0 +1,85 @@
+package com.thinkle_backend.ai.routing;
+
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.services.AiService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoutingAiServiceTest {
+
+    @Test
+    void failingBatchCallsRetireTheProviderOnlyForTheBatchFeature() {
+        AiService gemini = mock(AiService.class);
+        when(gemini.getAnswerAsync(eq(AiFeature.HINT_BATCH), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("overloaded")));
+        when(gemini.getAnswerAsync(eq(AiFeature.REPLY), anyString())).thenReturn(Mono.just("gemini"));
+        AiService local = mock(AiService.class);
+        when(local.getAnswerAsync(eq(AiFeature.HINT_BATCH), anyString())).thenReturn(Mono.just("local"));
+        when(local.getAnswerAsync(eq(AiFeature.REPLY), anyString())).thenReturn(Mono.just("local"));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RoutingAiService router = new RoutingAiService(
+                List.of(
+                        new AiProvider("gemini", gemini, EnumSet.allOf(AiFeature.class)),
+                        new AiProvider("local", local, EnumSet.allOf(AiFeature.class))
+                ),
+                provider -> new ProviderHealth(0.5, 2, 0.5, 10_000, Duration.ofMinutes(5), Duration.ofMinutes(5)),
+                Map.of(),
+                meterRegistry
+        );
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> router.getAnswer(AiFeature.HINT_BATCH, "hints"));
+        }
+
+        assertEquals("local", router.getAnswer(AiFeature.HINT_BATCH, "hints"));
+        assertEquals("gemini", router.getAnswer(AiFeature.REPLY, "reply"));
+        assertEquals(1.0, meterRegistry.get("thinkle.ai.router.retired")
+                .tags("provider", "gemini", "feature", AiFeature.HINT_BATCH.name()).gauge().value());
+        assertEquals(0.0, meterRegistry.get("thinkle.ai.router.retired")
+                .tags("provider", "gemini", "feature", AiFeature.REPLY.name()).gauge().value());
+    }
+
+    @Test
+    void aProviderOverTheLatencyBudgetIsProbedAndComesBack() throws InterruptedException {
+        AtomicInteger geminiCalls = new AtomicInteger();
+        AiService gemini = mock(AiService.class);
+        when(gemini.getAnswerAsync(eq(AiFeature.REPLY), anyString())).thenReturn(Mono.defer(() ->
+                geminiCalls.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(150)).thenReturn("slow gemini")
+                        : Mono.just("gemini")));
+        AiService local = mock(AiService.class);
+        when(local.getAnswerAsync(eq(AiFeature.REPLY), anyString())).thenReturn(Mono.just("local"));
+
+        RoutingAiService router = new RoutingAiService(
+                List.of(
+                        new AiProvider("gemini", gemini, EnumSet.allOf(AiFeature.class)),
+                        new AiProvider("local", local, EnumSet.allOf(AiFeature.class))
+                ),
+                provider -> new ProviderHealth(1.0, 1, 0.5, 10_000, Duration.ofMinutes(5), Duration.ofMillis(300)),
+                Map.of(AiFeature.REPLY, Duration.ofMillis(50)),
+                new SimpleMeterRegistry()
+        );
+
+        assertEquals("slow gemini", router.getAnswer(AiFeature.REPLY, "reply"));
+        assertEquals("local", router.getAnswer(AiFeature.REPLY, "reply"));
+
+        Thread.sleep(400);
+        assertEquals("gemini", router.getAnswer(AiFeature.REPLY, "reply"));
+        assertEquals("gemini", router.getAnswer(AiFeature.REPLY, "reply"));
+    }
+}
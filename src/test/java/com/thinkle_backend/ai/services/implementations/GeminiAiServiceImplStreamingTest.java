@@ -0,0 +1,89 @@
+package com.thinkle_backend.ai.services.implementations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkle_backend.ai.configs.GeminiGenerationSettings;
+import com.thinkle_backend.ai.enums.AiFeature;
+import com.thinkle_backend.ai.messageParser.GeminiMessageParser;
+import com.thinkle_backend.ai.scheduling.AiRequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs the client against a local stub of generateContent and streamGenerateContent?alt=sse
+class GeminiAiServiceImplStreamingTest {
+
+    private final AtomicReference<String> lastRequestBody = new AtomicReference<>();
+    private DisposableServer stubServer;
+    private GeminiAiServiceImpl geminiAiService;
+
+    @BeforeEach
+    void setUp() {
+        stubServer = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/v1beta/models/stub:generateContent", (request, response) ->
+                                response.header("Content-Type", "application/json")
+                                        .sendString(request.receive().aggregate().asString()
+                                                .doOnNext(lastRequestBody::set)
+                                                .map(body -> "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]}}]}")))
+                        .post("/v1beta/models/stub:streamGenerateContent", (request, response) ->
+                        response.header("Content-Type", "text/event-stream")
+                                .sendString(Flux.just(
+                                                chunk("\"The oracle \""),
+                                                chunk("\"ponders your \""),
+                                                chunk("\"guess...\""),
+                                                "data: {\"candidates\":[{\"finishReason\":\"STOP\"}]}\n\n")
+                                        .delayElements(Duration.ofMillis(20)))))
+                .bindNow();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        geminiAiService = new GeminiAiServiceImpl(WebClient.create(), new GeminiMessageParser(objectMapper),
+                new SimpleMeterRegistry(), new GeminiGenerationSettings(new MockEnvironment()), objectMapper);
+        ReflectionTestUtils.setField(geminiAiService, "geminiApiUrl",
+                "http://localhost:" + stubServer.port() + "/v1beta/models/stub:generateContent");
+        ReflectionTestUtils.setField(geminiAiService, "geminiStreamApiUrl", "");
+        ReflectionTestUtils.setField(geminiAiService, "geminiApiKey", "test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.disposeNow();
+    }
+
+    @Test
+    void streamsTextChunksInOrderAndSkipsChunksWithoutText() {
+        List<String> chunks = geminiAiService.streamAnswer(AiFeature.REPLY, "prompt")
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("The oracle ", "ponders your ", "guess..."), chunks);
+    }
+
+    @Test
+    void responseSchemaFromTheContextIsSentInTheGenerationConfig() throws Exception {
+        String answer = geminiAiService.getAnswerAsync(AiFeature.HINT_BATCH, "prompt")
+                .contextWrite(AiRequestContext.withResponseSchema(Map.of("type", "OBJECT")))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("ok", answer);
+        assertEquals("OBJECT", new ObjectMapper().readTree(lastRequestBody.get())
+                .at("/generationConfig/responseSchema/type").asText());
+    }
+
+    private static String chunk(String jsonText) {
+        return "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":" + jsonText + "}]}}]}\n\n";
+    }
+}
@@ -0,0 +1,82 @@
+package com.thinkle_backend.controllers;
+
+import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.dtos.responses.GuessStreamResponseDto;
+import com.thinkle_backend.exceptions.CanNotSubmitGuessException;
+import com.thinkle_backend.exceptions.GlobalExceptionHandler;
+import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.services.GuessService;
+import com.thinkle_backend.services.ReplyTicketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GuessControllerTest {
+
+    private static final String GUESS = "{\"userId\": 42, \"guessedWord\": \"CRANE\"}";
+
+    private GuessService guessService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        guessService = mock(GuessService.class);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new GuessController(guessService, mock(ReplyTicketService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void aRefusedStreamingGuessGetsTheUsualErrorResponse() throws Exception {
+        when(guessService.processGuessStreaming(any()))
+                .thenThrow(new CanNotSubmitGuessException("Game already won today."));
+
+        mockMvc.perform(post("/guess/submit/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(GUESS))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.statusCode").value(1))
+                .andExpect(jsonPath("$.message").value("Game already won today."));
+    }
+
+    @Test
+    void aReplyFailingAfterTheStreamStartedEndsWithAnErrorEvent() throws Exception {
+        GuessResponseDto result = new GuessResponseDto();
+        result.setGuessedWord("CRANE");
+        result.setGameStatus(GameStatus.IN_PROGRESS);
+        when(guessService.processGuessStreaming(any())).thenReturn(new GuessStreamResponseDto(result,
+                Flux.concat(Flux.just("The oracle "), Flux.error(new IllegalStateException("Oracle went quiet")))));
+
+        MvcResult started = mockMvc.perform(post("/guess/submit/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(GUESS))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event:result")))
+                .andExpect(content().string(containsString("event:reply\ndata:The oracle ")))
+                .andExpect(content().string(containsString("event:error")))
+                .andExpect(content().string(containsString("Oracle went quiet")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.thinkle_backend.dictionary;
+
+import com.thinkle_backend.utils.GuessScorer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DailyScoringTablesTest {
+
+    private static final List<String> WORDS = List.of(
+            "crane", "slate", "apple", "llama", "alloy", "speed", "erase", "abbey", "babes", "trace", "react", "caret"
+    );
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tableLookupMatchesScoringOnTheSpot() throws Exception {
+        DictionaryIndex index = loadIndex();
+        DailyScoringTable table = awaitTable(newTables(index), "REACT");
+
+        assertEquals(WORDS.size(), table.size());
+        for (String guess : WORDS) {
+            assertEquals(GuessScorer.score("REACT", guess), table.patternFor(index.idOf(guess)), guess);
+        }
+        assertTrue(GuessScorer.isSolved(table.patternFor(index.idOf("react")), 5));
+        assertTrue(table.averageScore() > 0);
+    }
+
+    @Test
+    void remainingCandidatesKeepOnlyWordsWithTheSameFeedback() throws Exception {
+        DictionaryIndex index = loadIndex();
+        DailyScoringTable table = awaitTable(newTables(index), "REACT");
+
+        // CRANE lights up C, R, A and E, so only the anagram-like words survive it
+        BitSet afterCrane = table.remainingCandidates(new int[]{index.idOf("crane")});
+        assertTrue(afterCrane.get(index.idOf("react")));
+        assertTrue(afterCrane.cardinality() < WORDS.size());
+
+        BitSet afterTrace = table.remainingCandidates(new int[]{index.idOf("crane"), index.idOf("trace")});
+        assertEquals(1, afterTrace.cardinality());
+        assertTrue(afterTrace.get(index.idOf("react")));
+    }
+
+    @Test
+    void tableIsRebuiltWhenTheSolutionChanges() throws Exception {
+        DailyScoringTables tables = newTables(loadIndex());
+        awaitTable(tables, "REACT");
+
+        assertNull(tables.find(LocalDate.now(), "CARET"));
+        assertTrue(awaitTable(tables, "CARET").isFor("caret"));
+    }
+
+    @Test
+    void preparingDaysAheadKeepsTodaysTable() throws Exception {
+        DailyScoringTables tables = newTables(loadIndex());
+        LocalDate today = LocalDate.now();
+        awaitTable(tables, today, "REACT");
+
+        // Same days the pre-generation run prepares
+        awaitTable(tables, today.plusDays(1), "CRANE");
+        awaitTable(tables, today.plusDays(2), "SLATE");
+
+        DailyScoringTable todays = tables.find(today, "REACT");
+        assertNotNull(todays);
+        assertEquals(today, todays.date());
+    }
+
+    private DailyScoringTable awaitTable(DailyScoringTables tables, String solution) throws InterruptedException {
+        return awaitTable(tables, LocalDate.now(), solution);
+    }
+
+    private DailyScoringTable awaitTable(DailyScoringTables tables, LocalDate date, String solution)
+            throws InterruptedException {
+        tables.prepare(date, solution);
+        for (int i = 0; i < 500; i++) {
+            DailyScoringTable table = tables.find(date, solution);
+            if (table != null) {
+                return table;
+            }
+            Thread.sleep(10);
+        }
+        DailyScoringTable table = tables.find(date, solution);
+        assertNotNull(table);
+        return table;
+    }
+
+    private DailyScoringTables newTables(DictionaryIndex index) {
+        DailyScoringTables tables = new DailyScoringTables(index, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tables, "SCORING_TABLE_ENABLED", true);
+        return tables;
+    }
+
+    private DictionaryIndex loadIndex() throws IOException {
+        Path indexFile = tempDir.resolve("dictionary.idx");
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            DictionaryIndexBuilder.write(DictionaryIndexBuilder.build(WORDS), out);
+        }
+
+        DictionaryIndex index = new DictionaryIndex();
+        ReflectionTestUtils.setField(index, "INDEX_PATH", indexFile.toString());
+        index.load();
+        return index;
+    }
+}
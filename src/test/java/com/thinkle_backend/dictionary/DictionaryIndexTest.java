@@ -0,0 +1,68 @@
+package com.thinkle_backend.dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mappedIndexAnswersLookupsPerWordLength() throws IOException {
+        DictionaryIndex index = loadIndex(List.of(
+                "# comment", "crane", "Slate", "apple", "crane", "planet", "it's", "", "zebra", "ox"
+        ));
+
+        assertTrue(index.covers(5));
+        assertTrue(index.covers(6));
+        assertTrue(index.covers(2));
+        assertFalse(index.covers(4));
+
+        assertTrue(index.contains("CRANE"));
+        assertTrue(index.contains("slate"));
+        assertTrue(index.contains("Planet"));
+        assertFalse(index.contains("CRANK"));
+        assertFalse(index.contains("PLANE"));
+        assertFalse(index.contains("CR4NE"));
+
+        // Ids are alphabetical ranks within a length, duplicates collapse into one word
+        assertEquals(4, index.wordCount(5));
+        assertEquals(0, index.idOf("APPLE"));
+        assertEquals(3, index.idOf("zebra"));
+        assertEquals("SLATE", index.wordAt(5, index.idOf("slate")));
+        assertEquals(-1, index.idOf("TIGER"));
+    }
+
+    @Test
+    void missingIndexFailsTheLoad() {
+        DictionaryIndex index = new DictionaryIndex();
+        ReflectionTestUtils.setField(index, "INDEX_PATH", tempDir.resolve("absent.idx").toString());
+
+        assertThrows(IllegalStateException.class, index::load);
+    }
+
+    private DictionaryIndex loadIndex(List<String> words) throws IOException {
+        Path indexFile = tempDir.resolve("dictionary.idx");
+        try (OutputStream out = Files.newOutputStream(indexFile)) {
+            DictionaryIndexBuilder.write(DictionaryIndexBuilder.build(words), out);
+        }
+
+        DictionaryIndex index = new DictionaryIndex();
+        ReflectionTestUtils.setField(index, "INDEX_PATH", indexFile.toString());
+        index.load();
+        return index;
+    }
+}
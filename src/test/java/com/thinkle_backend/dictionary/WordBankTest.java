@@ -0,0 +1,94 @@
+package com.thinkle_backend.dictionary;
+
+import com.thinkle_backend.repositories.WordOfTheDayRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class WordBankTest {
+
+    private static final List<String> WORDS = List.of("crane", "slate", "apple", "llama", "speed", "trace");
+
+    @TempDir
+    Path tempDir;
+
+    // Stands in for the word_of_the_day table every node writes to
+    private final List<String> solutions = new ArrayList<>();
+    private WordOfTheDayRepository repository;
+
+    @Test
+    void drawsComeFromMemoryUntilAnotherNodesWordForcesAReload() throws IOException {
+        WordBank bank = newBank();
+        String first = bank.draw(WordDifficulty.ANY);
+
+        // Another node makes it the word of the day, this node only finds out through the unique constraint
+        solutions.add(first.toUpperCase());
+        assertEquals(first, bank.draw(WordDifficulty.ANY));
+        assertEquals(0, bank.useCount(first));
+
+        bank.reloadUsedWords();
+        String next = bank.draw(WordDifficulty.ANY);
+        assertNotEquals(first, next);
+        assertTrue(bank.isUsed(first));
+        assertFalse(bank.isUsed(next));
+        verify(repository, times(2)).findAllSolutionWords();
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void everyWordIsDrawnOncePerCycleAndARestartKeepsTheCycle() throws IOException {
+        WordBank bank = newBank();
+        Set<String> firstCycle = new HashSet<>();
+        for (int i = 0; i < WORDS.size(); i++) {
+            String word = bank.draw(WordDifficulty.ANY);
+            solutions.add(word);
+            bank.markUsed(word);
+            assertTrue(firstCycle.add(word), word);
+        }
+
+        // The cycle starts over, and a restarted node reloading the history sees the same free words
+        String secondCycle = bank.draw(WordDifficulty.ANY);
+        solutions.add(secondCycle);
+        bank.markUsed(secondCycle);
+
+        WordBank restarted = newBank();
+        String next = restarted.draw(WordDifficulty.ANY);
+        assertNotEquals(secondCycle, next);
+        assertFalse(restarted.isUsed(next));
+        assertTrue(restarted.isUsed(secondCycle));
+        assertEquals(next, bank.draw(WordDifficulty.ANY));
+    }
+
+    private WordBank newBank() throws IOException {
+        Path source = tempDir.resolve("words.txt");
+        Files.writeString(source, String.join("\n", WORDS));
+
+        repository = mock(WordOfTheDayRepository.class);
+        when(repository.findAllSolutionWords()).thenAnswer(invocation -> List.copyOf(solutions));
+
+        WordBank bank = new WordBank(mock(DictionaryIndex.class), repository);
+        ReflectionTestUtils.setField(bank, "WORD_LENGTH", 5);
+        ReflectionTestUtils.setField(bank, "SOURCE", source.toUri().toString());
+        ReflectionTestUtils.setField(bank, "SEED", 7L);
+        bank.load();
+        return bank;
+    }
+}
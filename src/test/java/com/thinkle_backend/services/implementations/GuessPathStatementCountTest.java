@@ -0,0 +1,283 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.ai.features.replyToGuesses.GenerateReplyToGuessesLocally;
+import com.thinkle_backend.ai.features.replyToGuesses.ReplyToGuessesGenerator;
+import com.thinkle_backend.ai.features.wordGenerator.WordOfTheDayGenerator;
+import com.thinkle_backend.dictionary.DailyScoringTables;
+import com.thinkle_backend.dictionary.DictionaryIndex;
+import com.thinkle_backend.dictionary.WordBank;
+import com.thinkle_backend.dtos.requests.GuessRequestDto;
+import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.exceptions.CanNotSubmitGuessException;
+import com.thinkle_backend.models.GameSession;
+import com.thinkle_backend.models.ThinkleUsers;
+import com.thinkle_backend.models.WordOfTheDay;
+import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.models.enums.SessionStorageMode;
+import com.thinkle_backend.repositories.GameSessionRepository;
+import com.thinkle_backend.repositories.GuessRepository;
+import com.thinkle_backend.repositories.ThinkleUsersRepository;
+import com.thinkle_backend.repositories.WordOfTheDayRepository;
+import com.thinkle_backend.services.ReplyTicketService;
+import com.thinkle_backend.services.WordHintService;
+import com.thinkle_backend.services.WordOfTheDayService;
+import com.thinkle_backend.utils.SessionLogCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the SQL statements of a whole guess, AI reply included, against a real Postgres. Hibernate statistics
+ * count every prepared statement, native ones too. The one-statement limit is for COMPACT sessions only.
+ * Needs Docker, the class is skipped without it; GuessServiceImplTest counts the statements per path without it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "thinkle.ai.reply.mode=AI"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({
+        GuessServiceImpl.class,
+        WordOfTheDayServiceImpl.class,
+        DictionaryIndex.class,
+        DailyScoringTables.class,
+        GuessPathStatementCountTest.Collaborators.class
+})
+class GuessPathStatementCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private GuessServiceImpl guessService;
+
+    @Autowired
+    private WordOfTheDayService wordOfTheDayService;
+
+    @Autowired
+    private GameSessionRepository gameSessionRepository;
+
+    @Autowired
+    private GuessRepository guessRepository;
+
+    @Autowired
+    private WordOfTheDayRepository wordOfTheDayRepository;
+
+    @Autowired
+    private ThinkleUsersRepository thinkleUsersRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private WordOfTheDay wordOfTheDay;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        wordOfTheDay = wordOfTheDayRepository.findByGeneratedAt(LocalDate.now()).orElseGet(() -> {
+            WordOfTheDay word = new WordOfTheDay();
+            word.setSolutionWord("REACT");
+            word.setGeneratedAt(LocalDate.now());
+            return wordOfTheDayRepository.save(word);
+        });
+        // The first read of the day goes to the database, every guess after it is served from memory
+        wordOfTheDayService.getWordOfTheDay(LocalDate.now());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void guessOnACompactSessionIsOneStatement() {
+        GameSession session = newSession(SessionStorageMode.COMPACT, GameStatus.IN_PROGRESS);
+
+        statistics.clear();
+        GuessResponseDto response = guessService.processGuess(guess(session, "CRANE"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("The oracle hums.", response.getAiResponse());
+        assertEquals(4, response.getRemainingLives());
+        assertEquals(GameStatus.IN_PROGRESS, response.getGameStatus());
+
+        GameSession stored = gameSessionRepository.findById(session.getId()).orElseThrow();
+        assertEquals(4, stored.getRemainingLives());
+        assertEquals(1, stored.getGuessCount());
+        assertEquals("CRANE", SessionLogCodec.decodeGuesses(stored.getGuessLog()).get(0).guessedWord());
+    }
+
+    @Test
+    void solvingGuessOnACompactSessionIsOneStatement() {
+        GameSession session = newSession(SessionStorageMode.COMPACT, GameStatus.IN_PROGRESS);
+
+        statistics.clear();
+        GuessResponseDto response = guessService.processGuess(guess(session, "react"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(GameStatus.WON, response.getGameStatus());
+        assertEquals(5, response.getRemainingLives());
+    }
+
+    @Test
+    void guessAfterTheGameEndedIsTwoStatements() {
+        GameSession session = newSession(SessionStorageMode.COMPACT, GameStatus.WON);
+
+        statistics.clear();
+        assertThrows(CanNotSubmitGuessException.class, () -> guessService.processGuess(guess(session, "CRANE")));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // Legacy sessions miss the conditional UPDATE and keep the row-per-guess path
+    @Test
+    void guessOnATablesSessionFallsBackToTheGuessRows() {
+        GameSession session = newSession(SessionStorageMode.TABLES, GameStatus.IN_PROGRESS);
+        long guessRowsBefore = guessRepository.count();
+
+        statistics.clear();
+        GuessResponseDto response = guessService.processGuess(guess(session, "CRANE"));
+
+        assertTrue(statistics.getPrepareStatementCount() > 2);
+        assertEquals(4, response.getRemainingLives());
+        assertEquals(guessRowsBefore + 1, guessRepository.count());
+
+        GameSession stored = gameSessionRepository.findById(session.getId()).orElseThrow();
+        assertEquals(4, stored.getRemainingLives());
+        assertEquals(1, stored.getGuessCount());
+        assertNull(stored.getGuessLog());
+    }
+
+    @Test
+    void compactHintIsRefusedOnceTheLimitIsReached() {
+        GameSession session = newSession(SessionStorageMode.COMPACT, GameStatus.IN_PROGRESS);
+        byte[] entry = SessionLogCodec.encodeHint(1L, "SYNONYM", "Respond", LocalDateTime.now());
+
+        GameSessionRepository.HintOutcome first = gameSessionRepository.appendHint(session.getId(), entry, "SYNONYM",
+                1, 2, 1).orElseThrow();
+
+        assertEquals(4, first.getRemainingLives());
+        assertEquals(1, first.getHintsUsed());
+        assertTrue(gameSessionRepository.appendHint(session.getId(), entry, "SYNONYM", 1, 2, 1).isEmpty());
+        assertEquals(1, SessionLogCodec.decodeHints(
+                gameSessionRepository.findById(session.getId()).orElseThrow().getHintLog()).size());
+    }
+
+    @Test
+    void compactHintOfATypeAlreadyInTheLogIsRefused() {
+        GameSession session = newSession(SessionStorageMode.COMPACT, GameStatus.IN_PROGRESS);
+        byte[] synonym = SessionLogCodec.encodeHint(1L, "SYNONYM", "Respond", LocalDateTime.now());
+        byte[] rhyme = SessionLogCodec.encodeHint(2L, "RHYME", "", LocalDateTime.now());
+
+        assertTrue(gameSessionRepository.appendHint(session.getId(), synonym, "SYNONYM", 1, 2, 3).isPresent());
+        assertTrue(gameSessionRepository.appendHint(session.getId(), rhyme, "RHYME", 1, 2, 3).isPresent());
+        assertTrue(gameSessionRepository.appendHint(session.getId(), synonym, "SYNONYM", 1, 2, 3).isEmpty());
+        assertTrue(gameSessionRepository.appendHint(session.getId(), rhyme, "RHYME", 1, 2, 3).isEmpty());
+
+        GameSession stored = gameSessionRepository.findById(session.getId()).orElseThrow();
+        assertEquals(2, stored.getHintsUsed());
+        assertEquals(3, stored.getRemainingLives());
+    }
+
+    private GameSession newSession(SessionStorageMode storageMode, GameStatus status) {
+        String name = "player-" + UUID.randomUUID().toString().substring(0, 8);
+        ThinkleUsers user = new ThinkleUsers();
+        user.setUsername(name);
+        user.setEmail(name + "@thinkle.test");
+        user.setPassword("secret");
+        thinkleUsersRepository.save(user);
+
+        GameSession session = new GameSession();
+        session.setUser(user);
+        session.setGameDate(LocalDate.now());
+        session.setRemainingLives(5);
+        session.setStatus(status);
+        session.setGuesses(new ArrayList<>());
+        session.setHints(new ArrayList<>());
+        session.setWordOfTheDay(wordOfTheDay);
+        session.setStorageMode(storageMode);
+        return gameSessionRepository.save(session);
+    }
+
+    private static GuessRequestDto guess(GameSession session, String word) {
+        GuessRequestDto request = new GuessRequestDto();
+        request.setUserId(session.getUser().getId());
+        request.setGuessedWord(word);
+        return request;
+    }
+
+    @TestConfiguration
+    static class Collaborators {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        @Primary
+        ReplyToGuessesGenerator replyToGuessesGenerator() {
+            ReplyToGuessesGenerator generator = mock(ReplyToGuessesGenerator.class);
+            when(generator.generateReplyToTheGuessedWordAsync(any(), any(), any(), any(), any()))
+                    .thenReturn(Mono.just("The oracle hums."));
+            return generator;
+        }
+
+        @Bean
+        GenerateReplyToGuessesLocally localReplyGenerator() {
+            return mock(GenerateReplyToGuessesLocally.class);
+        }
+
+        @Bean
+        ReplyTicketService replyTicketService() {
+            return mock(ReplyTicketService.class);
+        }
+
+        @Bean
+        WordOfTheDayGenerator wordOfTheDayGenerator() {
+            return mock(WordOfTheDayGenerator.class);
+        }
+
+        @Bean
+        WordBank wordBank() {
+            return mock(WordBank.class);
+        }
+
+        @Bean
+        WordHintService wordHintService() {
+            return mock(WordHintService.class);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.ai.features.replyToGuesses.GenerateReplyToGuessesLocally;
+import com.thinkle_backend.ai.features.replyToGuesses.ReplyToGuessesGenerator;
+import com.thinkle_backend.dictionary.DailyScoringTables;
+import com.thinkle_backend.dictionary.DictionaryIndex;
+import com.thinkle_backend.dtos.requests.GuessRequestDto;
+import com.thinkle_backend.dtos.responses.GuessResponseDto;
+import com.thinkle_backend.exceptions.CanNotSubmitGuessException;
+import com.thinkle_backend.models.GameSession;
+import com.thinkle_backend.models.WordOfTheDay;
+import com.thinkle_backend.models.enums.GameStatus;
+import com.thinkle_backend.models.enums.ReplyMode;
+import com.thinkle_backend.models.enums.SessionStorageMode;
+import com.thinkle_backend.repositories.GameSessionRepository;
+import com.thinkle_backend.repositories.GuessRepository;
+import com.thinkle_backend.repositories.HintRepository;
+import com.thinkle_backend.services.ReplyTicketService;
+import com.thinkle_backend.services.WordOfTheDayService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement counts of each guess path without a database: every repository call here is one SQL statement.
+ * The one-statement limit holds for COMPACT sessions only, TABLES sessions keep the row-per-guess writes.
+ * GuessPathStatementCountTest counts the SQL itself against Postgres when Docker is available.
+ */
+class GuessServiceImplTest {
+
+    private static final Long USER_ID = 42L;
+
+    private GameSessionRepository gameSessionRepository;
+    private GuessRepository guessRepository;
+    private HintRepository hintRepository;
+    private GuessServiceImpl guessService;
+
+    @BeforeEach
+    void setUp() {
+        gameSessionRepository = mock(GameSessionRepository.class);
+        guessRepository = mock(GuessRepository.class);
+        hintRepository = mock(HintRepository.class);
+
+        WordOfTheDay wordOfTheDay = new WordOfTheDay();
+        wordOfTheDay.setSolutionWord("REACT");
+        wordOfTheDay.setGeneratedAt(LocalDate.now());
+        WordOfTheDayService wordOfTheDayService = mock(WordOfTheDayService.class);
+        when(wordOfTheDayService.getWordOfTheDay(any())).thenReturn(wordOfTheDay);
+
+        GenerateReplyToGuessesLocally localReplyGenerator = mock(GenerateReplyToGuessesLocally.class);
+        when(localReplyGenerator.generateReplyToTheGuessedWord(any(), any(), any(), any(), any())).thenReturn("Hmm.");
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        guessService = new GuessServiceImpl(
+                guessRepository,
+                wordOfTheDayService,
+                gameSessionRepository,
+                mock(ReplyToGuessesGenerator.class),
+                localReplyGenerator,
+                hintRepository,
+                mock(ReplyTicketService.class),
+                new DictionaryIndex(),
+                mock(DailyScoringTables.class),
+                transactionTemplate,
+                new SimpleMeterRegistry()
+        );
+        ReflectionTestUtils.setField(guessService, "MAX_WORD_LENGTH", 5);
+        ReflectionTestUtils.setField(guessService, "LIFE_COST_PER_WRONG_GUESS", 1);
+        ReflectionTestUtils.setField(guessService, "MAX_GUESS_COUNT", 6);
+        ReflectionTestUtils.setField(guessService, "AI_REPLY_DEADLINE_MS", 1000L);
+        ReflectionTestUtils.setField(guessService, "DEFAULT_REPLY_MODE", ReplyMode.LOCAL);
+    }
+
+    @Test
+    void compactSessionGuessIsAppliedByTheConditionalUpdate() {
+        when(gameSessionRepository.submitCompactGuess(eq(USER_ID), any(), any(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Optional.of(outcome(4, GameStatus.IN_PROGRESS, 1)));
+
+        GuessResponseDto response = guessService.processGuess(guess("CRANE"));
+
+        verify(gameSessionRepository).submitCompactGuess(eq(USER_ID), eq(LocalDate.now()), any(), eq(false), eq(1), eq(6));
+        verifyNoMoreInteractions(gameSessionRepository);
+        verifyNoInteractions(guessRepository, hintRepository);
+
+        assertEquals(4, response.getRemainingLives());
+        assertEquals(GameStatus.IN_PROGRESS, response.getGameStatus());
+        assertEquals(List.of(2), response.getCorrectPositions());
+        assertEquals(List.of(0, 1, 4), response.getMissedPositions());
+    }
+
+    @Test
+    void solvingGuessIsPassedToTheConditionalUpdate() {
+        when(gameSessionRepository.submitCompactGuess(eq(USER_ID), any(), any(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Optional.of(outcome(5, GameStatus.WON, 0)));
+
+        GuessResponseDto response = guessService.processGuess(guess("react"));
+
+        verify(gameSessionRepository).submitCompactGuess(eq(USER_ID), any(), any(), eq(true), anyInt(), anyInt());
+        verifyNoMoreInteractions(gameSessionRepository);
+        verifyNoInteractions(guessRepository, hintRepository);
+        assertEquals(GameStatus.WON, response.getGameStatus());
+    }
+
+    @Test
+    void guessAfterTheGameEndedReadsTheSessionToExplain() {
+        GameSession finished = new GameSession();
+        finished.setStatus(GameStatus.WON);
+        finished.setStorageMode(SessionStorageMode.COMPACT);
+        when(gameSessionRepository.submitCompactGuess(anyLong(), any(), any(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Optional.empty());
+        when(gameSessionRepository.findByUserIdAndGameDate(USER_ID, LocalDate.now())).thenReturn(Optional.of(finished));
+
+        assertThrows(CanNotSubmitGuessException.class, () -> guessService.processGuess(guess("CRANE")));
+
+        verify(gameSessionRepository).submitCompactGuess(eq(USER_ID), any(), any(), anyBoolean(), anyInt(), anyInt());
+        verify(gameSessionRepository).findByUserIdAndGameDate(USER_ID, LocalDate.now());
+        verifyNoMoreInteractions(gameSessionRepository);
+        verifyNoInteractions(guessRepository, hintRepository);
+    }
+
+    @Test
+    void tablesSessionGuessCountsHintsOnTheSessionKey() {
+        GameSession legacy = new GameSession();
+        legacy.setId(7L);
+        legacy.setStatus(GameStatus.IN_PROGRESS);
+        legacy.setStorageMode(SessionStorageMode.TABLES);
+        legacy.setRemainingLives(5);
+        legacy.setGuesses(new ArrayList<>());
+        when(gameSessionRepository.submitCompactGuess(anyLong(), any(), any(), anyBoolean(), anyInt(), anyInt()))
+                .thenReturn(Optional.empty());
+        when(gameSessionRepository.findByUserIdAndGameDate(USER_ID, LocalDate.now())).thenReturn(Optional.of(legacy));
+        when(guessRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(hintRepository.countByGameSession_Id(7L)).thenReturn(2L);
+
+        GuessResponseDto response = guessService.processGuess(guess("CRANE"));
+
+        verify(gameSessionRepository).submitCompactGuess(eq(USER_ID), any(), any(), anyBoolean(), anyInt(), anyInt());
+        verify(gameSessionRepository).findByUserIdAndGameDate(USER_ID, LocalDate.now());
+        verify(gameSessionRepository).save(legacy);
+        verify(guessRepository).save(any());
+        verify(hintRepository).countByGameSession_Id(7L);
+        verifyNoMoreInteractions(gameSessionRepository, guessRepository, hintRepository);
+        assertEquals(4, response.getRemainingLives());
+    }
+
+    private static GuessRequestDto guess(String word) {
+        GuessRequestDto request = new GuessRequestDto();
+        request.setUserId(USER_ID);
+        request.setGuessedWord(word);
+        return request;
+    }
+
+    private static GameSessionRepository.GuessOutcome outcome(int remainingLives, GameStatus status, int hintsUsed) {
+        return new GameSessionRepository.GuessOutcome() {
+            @Override
+            public Integer getRemainingLives() {
+                return remainingLives;
+            }
+
+            @Override
+            public String getStatus() {
+                return status.name();
+            }
+
+            @Override
+            public Integer getHintsUsed() {
+                return hintsUsed;
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.dtos.responses.GuessReplyResponseDto;
+import com.thinkle_backend.exceptions.ReplyTicketNotFoundException;
+import com.thinkle_backend.models.ReplyTicket;
+import com.thinkle_backend.models.enums.ReplyStatus;
+import com.thinkle_backend.repositories.ReplyTicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplyTicketServiceImplTest {
+
+    // Stands in for the reply_ticket table both nodes share
+    private final Map<String, ReplyTicket> table = new ConcurrentHashMap<>();
+    private final ReplyTicketRepository repository = sharedRepository();
+
+    @Test
+    void aTicketRegisteredOnOneNodeIsAnsweredByAnother() throws Exception {
+        ReplyTicketServiceImpl registeringNode = newNode();
+        ReplyTicketServiceImpl pollingNode = newNode();
+        CompletableFuture<String> reply = new CompletableFuture<>();
+
+        String ticket = registeringNode.registerPendingReply(7L, reply);
+        assertEquals(ReplyStatus.PENDING, pollingNode.getReply(7L, ticket, 0).get().getStatus());
+
+        CompletableFuture<GuessReplyResponseDto> waiting = pollingNode.getReply(7L, ticket, 5000);
+        reply.complete("The oracle hums.");
+
+        GuessReplyResponseDto answered = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(ReplyStatus.READY, answered.getStatus());
+        assertEquals("The oracle hums.", answered.getAiResponse());
+    }
+
+    @Test
+    void anotherUsersTicketIsNotFound() {
+        ReplyTicketServiceImpl node = newNode();
+        String ticket = node.registerPendingReply(7L, new CompletableFuture<>());
+
+        assertThrows(ReplyTicketNotFoundException.class, () -> newNode().getReply(8L, ticket, 0));
+    }
+
+    private ReplyTicketServiceImpl newNode() {
+        ReplyTicketServiceImpl node = new ReplyTicketServiceImpl(repository);
+        ReflectionTestUtils.setField(node, "TICKET_TTL_SECONDS", 300L);
+        ReflectionTestUtils.setField(node, "TICKET_POLL_INTERVAL_MS", 20L);
+        return node;
+    }
+
+    private ReplyTicketRepository sharedRepository() {
+        ReplyTicketRepository replyTicketRepository = mock(ReplyTicketRepository.class);
+        when(replyTicketRepository.save(any(ReplyTicket.class))).thenAnswer(invocation -> {
+            ReplyTicket saved = invocation.getArgument(0);
+            table.put(saved.getTicket(), copyOf(saved));
+            return saved;
+        });
+        when(replyTicketRepository.findByTicket(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<String>getArgument(0))).map(this::copyOf));
+        when(replyTicketRepository.complete(anyString(), any(ReplyStatus.class), any(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    ReplyTicket stored = table.get(invocation.<String>getArgument(0));
+                    stored.setStatus(invocation.getArgument(1));
+                    stored.setReply(invocation.getArgument(2));
+                    return 1;
+                });
+        return replyTicketRepository;
+    }
+
+    private ReplyTicket copyOf(ReplyTicket source) {
+        ReplyTicket copy = new ReplyTicket();
+        copy.setTicket(source.getTicket());
+        copy.setUserId(source.getUserId());
+        copy.setStatus(source.getStatus());
+        copy.setReply(source.getReply());
+        copy.setExpiresAt(source.getExpiresAt());
+        return copy;
+    }
+}
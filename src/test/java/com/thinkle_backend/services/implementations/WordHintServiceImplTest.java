@@ -0,0 +1,83 @@
+package com.thinkle_backend.services.implementations;
+
+import com.thinkle_backend.ai.features.hintGenerator.HintGenerator;
+import com.thinkle_backend.models.HintType;
+import com.thinkle_backend.models.WordHint;
+import com.thinkle_backend.models.WordOfTheDay;
+import com.thinkle_backend.repositories.GameSessionRepository;
+import com.thinkle_backend.repositories.HintRepository;
+import com.thinkle_backend.repositories.HintTypeRepository;
+import com.thinkle_backend.repositories.WordHintRepository;
+import com.thinkle_backend.repositories.WordOfTheDayRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WordHintServiceImplTest {
+
+    @Test
+    void aHintCreatedElsewhereDoesNotCostTheOthers() {
+        WordOfTheDay wordOfTheDay = new WordOfTheDay();
+        wordOfTheDay.setId(1L);
+        wordOfTheDay.setSolutionWord("REACT");
+        wordOfTheDay.setGeneratedAt(LocalDate.now());
+
+        WordOfTheDayRepository wordOfTheDayRepository = mock(WordOfTheDayRepository.class);
+        when(wordOfTheDayRepository.existsById(1L)).thenReturn(true);
+        HintTypeRepository hintTypeRepository = mock(HintTypeRepository.class);
+        when(hintTypeRepository.findAll()).thenReturn(List.of(
+                hintType(1L, "SYNONYM"), hintType(2L, "RHYME"), hintType(3L, "RIDDLE")));
+        HintGenerator hintGenerator = mock(HintGenerator.class);
+        when(hintGenerator.generateHintsAsync(anyString(), anyList())).thenReturn(Mono.just(Map.of(
+                "SYNONYM", "Respond", "RHYME", "Fact", "RIDDLE", "What a chemist watches")));
+
+        // Another node already stored the rhyme, the other two must still be saved
+        WordHintRepository wordHintRepository = mock(WordHintRepository.class);
+        when(wordHintRepository.save(any())).thenAnswer(invocation -> {
+            WordHint wordHint = invocation.getArgument(0);
+            if (wordHint.getHintType().getHintType().equals("RHYME")) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return wordHint;
+        });
+
+        WordHintServiceImpl wordHintService = new WordHintServiceImpl(
+                hintTypeRepository,
+                wordOfTheDayRepository,
+                hintGenerator,
+                wordHintRepository,
+                mock(GameSessionRepository.class),
+                mock(HintRepository.class),
+                new SimpleMeterRegistry()
+        );
+
+        wordHintService.createHintsForWordOfTheDay(wordOfTheDay);
+
+        ArgumentCaptor<WordHint> saved = ArgumentCaptor.forClass(WordHint.class);
+        verify(wordHintRepository, times(3)).save(saved.capture());
+        assertEquals(List.of("SYNONYM", "RHYME", "RIDDLE"),
+                saved.getAllValues().stream().map(wordHint -> wordHint.getHintType().getHintType()).toList());
+    }
+
+    private static HintType hintType(Long id, String name) {
+        HintType hintType = new HintType();
+        hintType.setId(id);
+        hintType.setHintType(name);
+        return hintType;
+    }
+}
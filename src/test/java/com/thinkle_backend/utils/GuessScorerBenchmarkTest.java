@@ -0,0 +1,97 @@
+package com.thinkle_backend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The benchmark only runs on demand: mvn test -Dtest=GuessScorerBenchmarkTest -Dbenchmark=true
+class GuessScorerBenchmarkTest {
+
+    // Repeated letters on either side are where scorers usually go wrong
+    private static final String[] WORDS = {
+            "CRANE", "SLATE", "APPLE", "LLAMA", "ALLOY", "EERIE", "GEESE", "SPEED", "ABBEY", "KAYAK",
+            "LEVEL", "PAPAL", "ROBOT", "TOOTH", "MAMMA", "QUEUE", "BOOST", "STOOL", "NANNY", "PUPPY"
+    };
+
+    @Test
+    void packedScoreMatchesGuessUtils() {
+        for (String solution : WORDS) {
+            for (String guess : WORDS) {
+                GuessUtils expected = new GuessUtils(solution, guess);
+                int packed = GuessScorer.score(solution, guess.toLowerCase());
+
+                assertEquals(expected.getCorrectPositionsOfGuessedWord(), GuessScorer.correctPositions(packed, 5), solution + "/" + guess);
+                assertEquals(expected.getMissedPositionsOfGuessedWord(), GuessScorer.missedPositions(packed, 5), solution + "/" + guess);
+                assertEquals(expected.getCorrectPositionsOfGuessedWord().size(), GuessScorer.correctCount(packed));
+                assertEquals(expected.getMissedPositionsOfGuessedWord().size(), GuessScorer.presentCount(packed));
+                assertEquals(packed, GuessScorer.score(ascii(solution), ascii(guess)));
+            }
+        }
+
+        assertTrue(GuessScorer.isSolved(GuessScorer.score("CRANE", "crane"), 5));
+        assertFalse(GuessScorer.isSolved(GuessScorer.score("CRANE", "CRATE"), 5));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkGuessUtilsAgainstPackedScorer() {
+        byte[][] asciiWords = new byte[WORDS.length][];
+        for (int i = 0; i < WORDS.length; i++) {
+            asciiWords[i] = ascii(WORDS[i]);
+        }
+
+        Scorer guessUtils = (i, j) -> new GuessUtils(WORDS[i], WORDS[j]).getCorrectPositionsOfGuessedWord().size();
+        Scorer packedStrings = (i, j) -> GuessScorer.score(WORDS[i], WORDS[j]);
+        Scorer packedBytes = (i, j) -> GuessScorer.score(asciiWords[i], asciiWords[j]);
+
+        for (int round = 0; round < 3; round++) {
+            run("GuessUtils", guessUtils, 2_000);
+            run("packed-str", packedStrings, 2_000);
+            run("packed-b[]", packedBytes, 2_000);
+        }
+        run("GuessUtils", guessUtils, 10_000).print();
+        run("packed-str", packedStrings, 10_000).print();
+        run("packed-b[]", packedBytes, 10_000).print();
+    }
+
+    private Result run(String name, Scorer scorer, int rounds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long operations = (long) rounds * WORDS.length * WORDS.length;
+        int sink = 0;
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < WORDS.length; i++) {
+                for (int j = 0; j < WORDS.length; j++) {
+                    sink += scorer.score(i, j);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(name, (double) elapsed / operations, (double) allocated / operations, sink);
+    }
+
+    private static byte[] ascii(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private interface Scorer {
+        int score(int solution, int guess);
+    }
+
+    private record Result(String name, double nanosPerOp, double bytesPerOp, int sink) {
+        void print() {
+            System.out.printf("%-10s %10.1f ns/op %10.1f B/op%n", name, nanosPerOp, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.thinkle_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionLogCodecTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 14, 9, 26, 53);
+
+    @Test
+    void appendedGuessesReadBackInOrder() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        log.writeBytes(SessionLogCodec.encodeGuess("CRANE", GuessScorer.score("REACT", "CRANE"), AT));
+        log.writeBytes(SessionLogCodec.encodeGuess("REACT", GuessScorer.score("REACT", "REACT"), AT.plusMinutes(1)));
+
+        List<SessionLogCodec.LoggedGuess> guesses = SessionLogCodec.decodeGuesses(log.toByteArray());
+
+        assertEquals(2, guesses.size());
+        assertEquals(2, SessionLogCodec.countGuesses(log.toByteArray()));
+        assertEquals("CRANE", guesses.get(0).guessedWord());
+        assertEquals(GuessScorer.score("REACT", "CRANE"), guesses.get(0).pattern());
+        assertEquals(AT, guesses.get(0).at());
+        assertTrue(GuessScorer.isSolved(guesses.get(1).pattern(), 5));
+    }
+
+    @Test
+    void appendedHintsReadBackInOrder() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        log.writeBytes(SessionLogCodec.encodeHint(7L, "SYNONYM", "Respond to something", AT));
+        log.writeBytes(SessionLogCodec.encodeHint(9L, "ORIGIN", "Ünïcödé from Latin", AT.plusSeconds(5)));
+
+        List<SessionLogCodec.LoggedHint> hints = SessionLogCodec.decodeHints(log.toByteArray());
+
+        assertEquals(List.of(
+                new SessionLogCodec.LoggedHint(7L, "SYNONYM", "Respond to something", AT),
+                new SessionLogCodec.LoggedHint(9L, "ORIGIN", "Ünïcödé from Latin", AT.plusSeconds(5))
+        ), hints);
+    }
+
+    @Test
+    void missingLogsAreEmpty() {
+        assertEquals(0, SessionLogCodec.countGuesses(null));
+        assertTrue(SessionLogCodec.decodeGuesses(null).isEmpty());
+        assertTrue(SessionLogCodec.decodeHints(null).isEmpty());
+    }
+
+    @Test
+    void packedPositionListsMatchTheScorer() {
+        int pattern = GuessScorer.score("SPEED", "ERASE");
+        assertEquals(pattern, GuessScorer.pack(
+                GuessScorer.correctPositions(pattern, 5), GuessScorer.missedPositions(pattern, 5)));
+    }
+}